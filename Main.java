@@ -1,18 +1,95 @@
+import codec.VehicleCodec;
+import codec.VehicleCodecs;
+import commands.BatchRunner;
 import fleet.FleetManager;
+import fleet.RefuelPolicies;
 import vehicles.*;
 import interfaces.*;
 import exceptions.*;
+import metrics.FleetMetrics;
+import report.ReportFormatter;
+import report.ReportWriter;
+import server.CommandServer;
+import telemetry.TelemetryPipeline;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
     private static final String DEFAULT_CSV = "fleet.csv";
 
+    private static boolean startupTiming;
+
+    // Options: --no-demo skips the demo fleet (and leaves fleet.csv untouched),
+    // --timing prints the time from JVM start until the first command can be read
     public static void main(String[] args) {
+        List<String> argList = new ArrayList<>(Arrays.asList(args));
+        startupTiming = argList.remove("--timing");
+        boolean demo = !argList.remove("--no-demo");
+        args = argList.toArray(new String[0]);
+        FleetMetrics.configureFromSystemProperties();
+        if (args.length > 0 && args[0].equals("ingest")) {
+            runIngest(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("batch")) {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("report")) {
+            runReport(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            runServer(args);
+            return;
+        }
+
         FleetManager manager = new FleetManager();
+        if (demo) runDemo(manager);
 
-        // Demo
+        // CLI
+        Scanner sc = new Scanner(System.in);
+        boolean running = true;
+        reportReady();
+
+        while (running) {
+            printMenu();
+            String line = sc.nextLine().trim();
+            int choice;
+            try {
+                choice = Integer.parseInt(line);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid choice");
+                continue;
+            }
+            switch (choice) {
+                case 1 -> doAddVehicle(manager, sc);
+                case 2 -> doRemoveVehicle(manager, sc);
+                case 3 -> doStartJourney(manager, sc);
+                case 4 -> doRefuelAll(manager, sc);
+                case 5 -> doPerformMaintenance(manager);
+                case 6 -> System.out.println(manager.generateReport());
+                case 7 -> manager.saveToFile(DEFAULT_CSV);
+                case 8 -> manager.loadFromFile(DEFAULT_CSV);
+                case 9 -> doSearchByType(manager, sc);
+                case 10 -> doListMaintenance(manager);
+                case 11 -> {
+                    running = false;
+                    System.out.println("Exiting...");
+                }
+                default -> System.out.println("Invalid option.");
+            }
+        }
+
+        sc.close();
+    }
+
+    private static void runDemo(FleetManager manager) {
         try {
             Car car = new Car("C001", "Toyota", 120.0, 4);
             car.refuel(50.0);
@@ -49,41 +126,154 @@ public class Main {
         } catch (InvalidOperationException | OverloadException e) {
             System.out.println("Demo setup error: " + e.getMessage());
         }
+    }
 
-        // CLI
-        Scanner sc = new Scanner(System.in);
-        boolean running = true;
+    private static void reportReady() {
+        if (!startupTiming) return;
+        long ms = java.lang.management.ManagementFactory.getRuntimeMXBean().getUptime();
+        System.out.println("Ready for first command " + ms + " ms after JVM start");
+    }
 
-        while (running) {
-            printMenu();
-            String line = sc.nextLine().trim();
-            int choice;
-            try {
-                choice = Integer.parseInt(line);
-            } catch (NumberFormatException e) {
-                System.out.println("Invalid choice");
-                continue;
+    // ingest <telemetry.jsonl> | ingest --port <port>
+    private static void runIngest(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: ingest <file> | ingest --port <port>");
+            return;
+        }
+        FleetManager manager = new FleetManager();
+        if (!loadDefaultFleet(manager)) return;
+        Vehicle.setLoggingEnabled(false);
+        int partitions = Runtime.getRuntime().availableProcessors();
+        TelemetryPipeline pipeline = new TelemetryPipeline(manager, partitions, 8192);
+        long start = System.nanoTime();
+        try (pipeline) {
+            pipeline.start();
+            if (args[1].equals("--port")) {
+                int port = pipeline.listen(args.length > 2 ? Integer.parseInt(args[2]) : 0);
+                System.out.println("Listening for telemetry on 127.0.0.1:" + port + " (press Enter to stop)");
+                new Scanner(System.in).nextLine();
+            } else {
+                pipeline.ingestFile(args[1]);
             }
-            switch (choice) {
-                case 1 -> doAddVehicle(manager, sc);
-                case 2 -> doRemoveVehicle(manager, sc);
-                case 3 -> doStartJourney(manager, sc);
-                case 4 -> doRefuelAll(manager, sc);
-                case 5 -> doPerformMaintenance(manager);
-                case 6 -> System.out.println(manager.generateReport());
-                case 7 -> manager.saveToFile(DEFAULT_CSV);
-                case 8 -> manager.loadFromFile(DEFAULT_CSV);
-                case 9 -> doSearchByType(manager, sc);
-                case 10 -> doListMaintenance(manager);
-                case 11 -> {
-                    running = false;
-                    System.out.println("Exiting...");
+        } catch (Exception e) {
+            // Partially applied telemetry is not saved
+            System.out.println("Ingest error: " + e.getMessage());
+            return;
+        } finally {
+            Vehicle.setLoggingEnabled(true);
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        long total = pipeline.getApplied() + pipeline.getFailed() + pipeline.getUnknownVehicle();
+        System.out.println("Applied: " + pipeline.getApplied() + ", failed: " + pipeline.getFailed()
+                + ", unknown vehicle: " + pipeline.getUnknownVehicle() + ", malformed: " + pipeline.getMalformed());
+        System.out.printf("%d events in %.3f s (%.0f events/s)%n", total, secs, total / Math.max(secs, 1e-9));
+        manager.saveToFile(DEFAULT_CSV);
+    }
+
+    // report <fleet-csv> <out> [--format csv|json]: streams a per-vehicle report with per-type rollups
+    private static void runReport(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: report <fleet-csv> <out> [--format csv|json]");
+            return;
+        }
+        String format = "csv";
+        for (int i = 3; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--format")) {
+                format = args[i + 1];
+            } else {
+                System.out.println("Unknown option: " + args[i]);
+                return;
+            }
+        }
+        ReportFormatter formatter;
+        try {
+            formatter = ReportWriter.formatter(format);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        FleetManager manager = new FleetManager();
+        if (!manager.loadFromFile(args[1])) return;
+        try (Writer out = new FileWriter(args[2], StandardCharsets.UTF_8)) {
+            int rows = manager.writeReport(out, formatter);
+            System.out.println("Report of " + rows + " vehicles written to " + args[2]);
+        } catch (IOException e) {
+            System.out.println("Report error: " + e.getMessage());
+        }
+    }
+
+    // batch <script> [--out <file>] [--fleet <csv to start from>] [--save <csv>]
+    private static void runBatch(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: batch <script> [--out <file>] [--fleet <csv>] [--save <csv>]");
+            return;
+        }
+        String script = args[1];
+        String outFile = script + ".out";
+        String fleetFile = null;
+        String saveFile = null;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--out" -> outFile = args[i + 1];
+                case "--fleet" -> fleetFile = args[i + 1];
+                case "--save" -> saveFile = args[i + 1];
+                default -> {
+                    System.out.println("Unknown option: " + args[i]);
+                    return;
                 }
-                default -> System.out.println("Invalid option.");
             }
         }
+        FleetManager manager = new FleetManager();
+        if (fleetFile != null && !manager.loadFromFile(fleetFile)) return;
+        Vehicle.setLoggingEnabled(false);
+        PrintStream console = System.out;
+        try (BufferedReader in = new BufferedReader(new FileReader(script, StandardCharsets.UTF_8), 1 << 16);
+             Writer out = new BufferedWriter(new FileWriter(outFile, StandardCharsets.UTF_8), 1 << 16)) {
+            // FleetManager reports per-vehicle journey failures on stdout; keep them out of the summary
+            reportReady();
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            BatchRunner.Summary summary = new BatchRunner(manager).run(in, out);
+            System.setOut(console);
+            System.out.print(summary);
+            System.out.println("Results written to " + outFile);
+        } catch (IOException e) {
+            System.setOut(console);
+            System.out.println("Batch error: " + e.getMessage());
+        } finally {
+            System.setOut(console);
+            Vehicle.setLoggingEnabled(true);
+        }
+        if (saveFile != null) manager.saveToFile(saveFile);
+    }
 
-        sc.close();
+    // serve [port]: line protocol on 127.0.0.1 against the fleet in fleet.csv, saved on exit
+    private static void runServer(String[] args) {
+        FleetManager manager = new FleetManager();
+        if (!loadDefaultFleet(manager)) return;
+        Vehicle.setLoggingEnabled(false);
+        Thread t = null;
+        try (CommandServer server = new CommandServer(manager, args.length > 1 ? Integer.parseInt(args[1]) : 7070)) {
+            t = new Thread(server, "command-server");
+            t.start();
+            System.out.println("Command server on 127.0.0.1:" + server.getPort() + " (press Enter to stop)");
+            reportReady();
+            new Scanner(System.in).nextLine();
+        } catch (Exception e) {
+            System.out.println("Server error: " + e.getMessage());
+        }
+        // The selector thread owns the fleet until it has stopped
+        try {
+            if (t != null) t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        manager.saveToFile(DEFAULT_CSV);
+    }
+
+    // Starts from an empty fleet if there is no fleet.csv yet; false if one exists but didn't load, so
+    // the caller stops before saving a partial fleet over it
+    private static boolean loadDefaultFleet(FleetManager manager) {
+        return !new File(DEFAULT_CSV).exists() || manager.loadFromFile(DEFAULT_CSV);
     }
 
     private static void printMenu() {
@@ -104,8 +294,13 @@ public class Main {
 
     private static void doAddVehicle(FleetManager manager, Scanner sc) {
         try {
-            System.out.print("Enter type (Car/Truck/Bus/Airplane/CargoShip): ");
+            System.out.print("Enter type (" + typeNames() + "): ");
             String type = sc.nextLine().trim();
+            VehicleCodec<?> codec = VehicleCodecs.forName(type);
+            if (codec == null) {
+                System.out.println("Unknown type.");
+                return;
+            }
 
             System.out.print("Enter ID: ");
             String id = sc.nextLine().trim();
@@ -114,38 +309,8 @@ public class Main {
             System.out.print("Enter maxSpeed: ");
             double maxSpeed = Double.parseDouble(sc.nextLine().trim());
 
-            Vehicle v;
-            switch (type) {
-                case "Car" -> {
-                    System.out.print("Enter numWheels: ");
-                    int wheels = Integer.parseInt(sc.nextLine().trim());
-                    v = new Car(id, model, maxSpeed, wheels);
-                }
-                case "Truck" -> {
-                    System.out.print("Enter numWheels: ");
-                    int wheels = Integer.parseInt(sc.nextLine().trim());
-                    v = new Truck(id, model, maxSpeed, wheels);
-                }
-                case "Bus" -> {
-                    System.out.print("Enter numWheels: ");
-                    int wheels = Integer.parseInt(sc.nextLine().trim());
-                    v = new Bus(id, model, maxSpeed, wheels);
-                }
-                case "Airplane" -> {
-                    System.out.print("Enter maxAltitude: ");
-                    double alt = Double.parseDouble(sc.nextLine().trim());
-                    v = new Airplane(id, model, maxSpeed, alt);
-                }
-                case "CargoShip" -> {
-                    System.out.print("Has sail? (true/false): ");
-                    boolean hasSail = Boolean.parseBoolean(sc.nextLine().trim());
-                    v = new CargoShip(id, model, maxSpeed, hasSail);
-                }
-                default -> {
-                    System.out.println("Unknown type.");
-                    return;
-                }
-            }
+            System.out.print("Enter " + codec.extraField() + ": ");
+            Vehicle v = codec.create(id, model, maxSpeed, sc.nextLine().trim());
             manager.addVehicle(v);
             System.out.println("Added " + type + " with ID " + v.getId());
         } catch (Exception e) {
@@ -178,18 +343,15 @@ public class Main {
         try {
             System.out.print("Enter amount to refuel each fuelable vehicle: ");
             double a = Double.parseDouble(sc.nextLine().trim());
-            for (Vehicle v : manager.getFleet()) {
-                if (v instanceof FuelConsumable) {
-                    try {
-                        ((FuelConsumable) v).refuel(a);
-                        System.out.println("Refueled " + v.getId());
-                    } catch (InvalidOperationException e) {
-                        System.out.println("Refuel error for " + v.getId() + ": " + e.getMessage());
-                    }
-                }
+            if (a <= 0) {
+                System.out.println("Refuel amount must be positive");
+                return;
             }
+            System.out.println(manager.refuelAll(Double.POSITIVE_INFINITY, RefuelPolicies.fixed(a)));
         } catch (NumberFormatException e) {
             System.out.println("Invalid amount");
+        } catch (InvalidOperationException e) {
+            System.out.println("Refuel error: " + e.getMessage());
         }
     }
 
@@ -199,16 +361,25 @@ public class Main {
     }
 
     private static void doSearchByType(FleetManager manager, Scanner sc) {
-        System.out.print("Enter type to search (Car/Truck/Bus/Airplane/CargoShip): ");
+        System.out.print("Enter type to search (" + typeNames() + "): ");
         String t = sc.nextLine().trim();
-        try {
-            Class<?> cls = Class.forName("vehicles." + t);
-            List<Vehicle> res = manager.searchByType(cls);
-            if (res.isEmpty()) System.out.println("No vehicles found.");
-            for (Vehicle v : res) v.displayInfo();
-        } catch (ClassNotFoundException e) {
+        Class<? extends Vehicle> cls = VehicleCodecs.typeForName(t);
+        if (cls == null) {
             System.out.println("Invalid type.");
+            return;
+        }
+        List<Vehicle> res = manager.searchByType(cls);
+        if (res.isEmpty()) System.out.println("No vehicles found.");
+        for (Vehicle v : res) v.displayInfo();
+    }
+
+    private static String typeNames() {
+        StringBuilder sb = new StringBuilder();
+        for (VehicleCodec<?> c : VehicleCodecs.all()) {
+            if (sb.length() > 0) sb.append('/');
+            sb.append(c.name());
         }
+        return sb.toString();
     }
 
     private static void doListMaintenance(FleetManager manager) {
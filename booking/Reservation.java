@@ -0,0 +1,45 @@
+package booking;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class Reservation {
+    public enum Status { HELD, CONFIRMED, CANCELLED, EXPIRED }
+
+    private final long id;
+    private final String vehicleId;
+    private final int seats;
+    private final long expiresAtNanos;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.HELD);
+
+    Reservation(long id, String vehicleId, int seats, long expiresAtNanos) {
+        this.id = id;
+        this.vehicleId = vehicleId;
+        this.seats = seats;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getVehicleId() {
+        return vehicleId;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    boolean isExpired(long now) {
+        return now - expiresAtNanos >= 0;
+    }
+
+    // Every hold leaves HELD exactly once, so confirm, cancel and the expiry sweep can race freely
+    boolean transition(Status from, Status to) {
+        return status.compareAndSet(from, to);
+    }
+}
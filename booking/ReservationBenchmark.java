@@ -0,0 +1,100 @@
+package booking;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import interfaces.PassengerCarrier;
+import vehicles.Airplane;
+import vehicles.Bus;
+import vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hammers a handful of vehicles from many threads: each thread reserves 1-4 seats and then
+// confirms, cancels or abandons the hold. Reports reservations per second and checks that no
+// vehicle ended up with more passengers than seats.
+// Usage: java booking.ReservationBenchmark [threads] [vehicles] [seconds] [holdMillis]
+public class ReservationBenchmark {
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 2;
+        int vehicleCount = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long holdMillis = args.length > 3 ? Long.parseLong(args[3]) : 50;
+
+        List<Vehicle> vehicles = new ArrayList<>();
+        try (SeatReservationEngine engine = new SeatReservationEngine(holdMillis)) {
+            for (int i = 0; i < vehicleCount; i++) {
+                Vehicle v = i % 2 == 0 ? new Bus("BUS" + i, "Bench", 80, 6) : new Airplane("AIR" + i, "Bench", 900, 11000);
+                vehicles.add(v);
+                engine.register(v);
+            }
+
+            LongAdder attempts = new LongAdder();
+            CountDownLatch start = new CountDownLatch(1);
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread w = new Thread(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (System.nanoTime() < deadline) {
+                        Vehicle v = vehicles.get(rnd.nextInt(vehicles.size()));
+                        attempts.increment();
+                        try {
+                            Reservation r = engine.reserve(v.getId(), 1 + rnd.nextInt(4));
+                            int choice = rnd.nextInt(50);
+                            if (choice < 15) engine.confirm(r.getId());
+                            else if (choice < 49) engine.cancel(r.getId());
+                            // else: abandoned, left for the expiry sweep
+                        } catch (OverloadException e) {
+                            // Sold out: let some passengers off so bookings keep flowing
+                            try {
+                                int onboard = ((PassengerCarrier) v).getCurrentPassengers();
+                                if (onboard > 0) engine.release(v.getId(), (onboard + 1) / 2);
+                            } catch (InvalidOperationException ignored) {
+                                // another thread released them first
+                            }
+                        } catch (InvalidOperationException e) {
+                            // hold expired before we got to it
+                        }
+                    }
+                }, "booker-" + t);
+                workers.add(w);
+                w.start();
+            }
+
+            long t0 = System.nanoTime();
+            start.countDown();
+            for (Thread w : workers) w.join();
+            double elapsed = (System.nanoTime() - t0) / 1e9;
+            Thread.sleep(holdMillis * 2);
+            engine.expireHolds();
+
+            System.out.printf("threads=%d vehicles=%d elapsed=%.2fs%n", threads, vehicleCount, elapsed);
+            System.out.printf("attempts: %d (%.0f/s)%n", attempts.sum(), attempts.sum() / elapsed);
+            System.out.printf("reservations: %d (%.0f/s), rejected %d%n",
+                    engine.getReserved(), engine.getReserved() / elapsed, engine.getRejected());
+            System.out.printf("confirmed %d, cancelled %d, expired %d, open holds %d%n",
+                    engine.getConfirmed(), engine.getCancelled(), engine.getExpired(), engine.getOpenHolds());
+
+            boolean ok = true;
+            for (Vehicle v : vehicles) {
+                PassengerCarrier pc = (PassengerCarrier) v;
+                int accounted = pc.getCurrentPassengers() + engine.getFreeSeats(v.getId()) + engine.getHeldSeats(v.getId());
+                if (pc.getCurrentPassengers() > pc.getPassengerCapacity() || accounted != pc.getPassengerCapacity()) {
+                    System.out.println("Seat accounting mismatch on " + v.getId() + ": onboard " + pc.getCurrentPassengers()
+                            + ", free " + engine.getFreeSeats(v.getId()) + ", capacity " + pc.getPassengerCapacity());
+                    ok = false;
+                }
+            }
+            System.out.println(ok ? "No overbooking detected." : "OVERBOOKING DETECTED");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package booking;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import fleet.FleetManager;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Seat booking on top of PassengerCarrier. Each vehicle has one lock-free counter of free seats;
+// reserve() takes seats from it with a CAS loop and never lets it drop below zero, so the vehicle
+// can't be overbooked however many threads book it at once. A reservation is a hold until it is
+// confirmed (the passengers board the vehicle) or cancelled/expired (the seats go back).
+// Boarding changes a vehicle, which fires its FleetManager's listeners, so vehicles that belong to
+// a fleet are registered through registerFleet with the executor that owns that fleet (the shard or
+// tenant thread); confirm and release hand the change to it and wait, so they must not be called
+// from that thread. Standalone vehicles are changed in place under the vehicle's lock.
+public class SeatReservationEngine implements AutoCloseable {
+    private final Map<String, Inventory> inventories = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> holds = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final long holdNanos;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder reserved = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    public SeatReservationEngine(long holdMillis) {
+        if (holdMillis <= 0) throw new IllegalArgumentException("Hold time must be positive");
+        this.holdNanos = TimeUnit.MILLISECONDS.toNanos(holdMillis);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(10, holdMillis / 4);
+        sweeper.scheduleWithFixedDelay(this::expireHolds, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // For vehicles that are not in a FleetManager
+    public void register(Vehicle v) throws InvalidOperationException {
+        if (!(v instanceof PassengerCarrier))
+            throw new InvalidOperationException("Vehicle " + v.getId() + " does not carry passengers");
+        if (v.getListener() != null)
+            throw new InvalidOperationException("Vehicle " + v.getId() + " belongs to a fleet; use registerFleet");
+        inventories.put(v.getId(), new Inventory(v, null));
+    }
+
+    // owner runs every boarding and disembarking for this fleet's vehicles, e.g. the shard or tenant
+    // executor the manager is confined to
+    public int registerFleet(FleetManager manager, Executor owner) {
+        int n = 0;
+        for (Vehicle v : manager.getFleet()) {
+            if (v instanceof PassengerCarrier) {
+                inventories.put(v.getId(), new Inventory(v, owner));
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public Reservation reserve(String vehicleId, int seats) throws InvalidOperationException, OverloadException {
+        if (seats <= 0) throw new InvalidOperationException("Seat count must be positive");
+        Inventory inv = inventory(vehicleId);
+        AtomicInteger free = inv.free;
+        while (true) {
+            int current = free.get();
+            if (current < seats) {
+                rejected.increment();
+                throw new OverloadException("Not enough free seats on " + vehicleId);
+            }
+            if (free.compareAndSet(current, current - seats)) break;
+        }
+        Reservation r = new Reservation(nextId.getAndIncrement(), vehicleId, seats, System.nanoTime() + holdNanos);
+        holds.put(r.getId(), r);
+        reserved.increment();
+        return r;
+    }
+
+    public void confirm(long reservationId) throws InvalidOperationException {
+        Reservation r = holds.get(reservationId);
+        if (r == null) throw new InvalidOperationException("Unknown or closed reservation " + reservationId);
+        if (r.isExpired(System.nanoTime())) {
+            expire(r);
+            throw new InvalidOperationException("Reservation " + reservationId + " has expired");
+        }
+        if (!r.transition(Reservation.Status.HELD, Reservation.Status.CONFIRMED))
+            throw new InvalidOperationException("Reservation " + reservationId + " is " + r.getStatus());
+        holds.remove(reservationId);
+        Inventory inv = inventories.get(r.getVehicleId());
+        // The seats were taken from the counter at reserve time, so boarding can only overflow if the
+        // vehicle was filled outside the engine. If boarding doesn't happen, the reservation goes back
+        // to being a hold on its seats, to be confirmed again, cancelled or left to expire.
+        try {
+            inv.apply(() -> inv.carrier.boardPassengers(r.getSeats()));
+        } catch (OverloadException e) {
+            restoreHold(r);
+            throw new InvalidOperationException("Vehicle " + r.getVehicleId() + " was filled outside the engine");
+        } catch (InvalidOperationException | RuntimeException | Error e) {
+            restoreHold(r);
+            throw e;
+        }
+        confirmed.increment();
+    }
+
+    private void restoreHold(Reservation r) {
+        r.transition(Reservation.Status.CONFIRMED, Reservation.Status.HELD);
+        holds.put(r.getId(), r);
+    }
+
+    public void cancel(long reservationId) throws InvalidOperationException {
+        Reservation r = holds.get(reservationId);
+        if (r == null) throw new InvalidOperationException("Unknown or closed reservation " + reservationId);
+        if (!r.transition(Reservation.Status.HELD, Reservation.Status.CANCELLED))
+            throw new InvalidOperationException("Reservation " + reservationId + " is " + r.getStatus());
+        holds.remove(reservationId);
+        inventories.get(r.getVehicleId()).free.addAndGet(r.getSeats());
+        cancelled.increment();
+    }
+
+    // Passengers leaving the vehicle free their seats for new bookings
+    public void release(String vehicleId, int seats) throws InvalidOperationException {
+        Inventory inv = inventory(vehicleId);
+        try {
+            inv.apply(() -> inv.carrier.disembarkPassengers(seats));
+        } catch (OverloadException e) {
+            throw new InvalidOperationException(e.getMessage());
+        }
+        inv.free.addAndGet(seats);
+    }
+
+    public int getFreeSeats(String vehicleId) throws InvalidOperationException {
+        return inventory(vehicleId).free.get();
+    }
+
+    public int getHeldSeats(String vehicleId) {
+        int n = 0;
+        for (Reservation r : holds.values()) {
+            if (r.getVehicleId().equals(vehicleId) && r.getStatus() == Reservation.Status.HELD) n += r.getSeats();
+        }
+        return n;
+    }
+
+    public int getOpenHolds() {
+        return holds.size();
+    }
+
+    public int expireHolds() {
+        long now = System.nanoTime();
+        int n = 0;
+        for (Reservation r : holds.values()) {
+            if (r.isExpired(now) && expire(r)) n++;
+        }
+        return n;
+    }
+
+    private boolean expire(Reservation r) {
+        if (!r.transition(Reservation.Status.HELD, Reservation.Status.EXPIRED)) return false;
+        holds.remove(r.getId());
+        inventories.get(r.getVehicleId()).free.addAndGet(r.getSeats());
+        expired.increment();
+        return true;
+    }
+
+    private Inventory inventory(String vehicleId) throws InvalidOperationException {
+        Inventory inv = inventories.get(vehicleId);
+        if (inv == null) throw new InvalidOperationException("Vehicle " + vehicleId + " is not open for booking");
+        return inv;
+    }
+
+    public long getReserved() {
+        return reserved.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getConfirmed() {
+        return confirmed.sum();
+    }
+
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    private interface SeatChange {
+        void run() throws InvalidOperationException, OverloadException;
+    }
+
+    private static final class Inventory {
+        final Vehicle vehicle;
+        final PassengerCarrier carrier;
+        final AtomicInteger free;
+        final Executor owner;
+
+        Inventory(Vehicle vehicle, Executor owner) {
+            this.vehicle = vehicle;
+            this.carrier = (PassengerCarrier) vehicle;
+            this.owner = owner;
+            this.free = new AtomicInteger(Math.max(0, carrier.getPassengerCapacity() - carrier.getCurrentPassengers()));
+        }
+
+        // Runs the change on the owning thread and waits for it, or in place under the vehicle's
+        // lock (which only protects its own passenger field) for a standalone vehicle. An interrupt
+        // only abandons the change if it hasn't started; once running, its outcome is waited for.
+        void apply(SeatChange change) throws InvalidOperationException, OverloadException {
+            if (owner == null) {
+                synchronized (vehicle) {
+                    change.run();
+                }
+                return;
+            }
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                change.run();
+                return null;
+            });
+            try {
+                owner.execute(task);
+            } catch (RejectedExecutionException e) {
+                throw new InvalidOperationException("Fleet of " + vehicle.getId() + " is not accepting work");
+            }
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        task.get();
+                        return;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                        if (task.cancel(false))
+                            throw new InvalidOperationException("Interrupted waiting for " + vehicle.getId());
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof InvalidOperationException ioe) throw ioe;
+                        if (cause instanceof OverloadException oe) throw oe;
+                        if (cause instanceof RuntimeException re) throw re;
+                        if (cause instanceof Error err) throw err;
+                        throw new IllegalStateException(cause);
+                    }
+                }
+            } finally {
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
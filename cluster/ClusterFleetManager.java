@@ -0,0 +1,178 @@
+package cluster;
+
+import exceptions.InsufficientFuelException;
+import exceptions.InvalidOperationException;
+import fleet.FleetStats;
+import vehicles.Vehicle;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Routes FleetManager operations to FleetNodes partitioned by vehicle ID range. Node i owns IDs in
+// [splitPoints[i-1], splitPoints[i]). Fleet-wide operations are pipelined to every node and the
+// partial FleetStats are merged here; vehicles never leave their node.
+public class ClusterFleetManager implements AutoCloseable {
+    private final String[] splitPoints;
+    private final NodeClient[] nodes;
+    private final List<FleetNode> localNodes = new ArrayList<>();
+
+    public ClusterFleetManager(String[] splitPoints, InetSocketAddress[] addresses) throws IOException {
+        if (addresses.length != splitPoints.length + 1) {
+            throw new IllegalArgumentException("Need exactly one more node than split points");
+        }
+        String[] sorted = splitPoints.clone();
+        Arrays.sort(sorted);
+        if (!Arrays.equals(sorted, splitPoints)) throw new IllegalArgumentException("Split points must be sorted");
+        this.splitPoints = sorted;
+        this.nodes = new NodeClient[addresses.length];
+        try {
+            for (int i = 0; i < addresses.length; i++) nodes[i] = new NodeClient(addresses[i]);
+        } catch (IOException e) {
+            closeClients();
+            throw e;
+        }
+    }
+
+    // Starts splitPoints.length + 1 nodes on the loopback interface and connects to them
+    public static ClusterFleetManager startLocal(String... splitPoints) throws IOException {
+        List<FleetNode> started = new ArrayList<>();
+        try {
+            InetSocketAddress[] addresses = new InetSocketAddress[splitPoints.length + 1];
+            for (int i = 0; i < addresses.length; i++) {
+                String low = i == 0 ? null : splitPoints[i - 1];
+                String high = i == splitPoints.length ? null : splitPoints[i];
+                FleetNode node = FleetNode.startLocal(low, high);
+                started.add(node);
+                addresses[i] = new InetSocketAddress(InetAddress.getLoopbackAddress(), node.getPort());
+            }
+            ClusterFleetManager cluster = new ClusterFleetManager(splitPoints, addresses);
+            cluster.localNodes.addAll(started);
+            return cluster;
+        } catch (IOException | RuntimeException e) {
+            for (FleetNode n : started) n.close();
+            throw e;
+        }
+    }
+
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    public synchronized void addVehicle(Vehicle v) throws IOException, InvalidOperationException {
+        NodeClient n = nodeFor(v.getId());
+        n.out.writeByte(Protocol.OP_ADD);
+        Protocol.writeVehicle(n.out, v);
+        n.out.flush();
+        n.readOk();
+    }
+
+    public synchronized void removeVehicle(String id) throws IOException, InvalidOperationException {
+        NodeClient n = nodeFor(id);
+        n.out.writeByte(Protocol.OP_REMOVE);
+        n.out.writeUTF(id);
+        n.out.flush();
+        n.readOk();
+    }
+
+    public synchronized void startJourney(String id, double distance)
+            throws IOException, InvalidOperationException, InsufficientFuelException {
+        NodeClient n = nodeFor(id);
+        n.out.writeByte(Protocol.OP_MOVE);
+        n.out.writeUTF(id);
+        n.out.writeDouble(distance);
+        n.out.flush();
+        n.readStatus();
+    }
+
+    public synchronized void startAllJourneys(double distance) throws IOException, InvalidOperationException {
+        scatterGather(n -> {
+            n.out.writeByte(Protocol.OP_START_ALL);
+            n.out.writeDouble(distance);
+        }, n -> {
+        });
+    }
+
+    public synchronized void maintainAll() throws IOException, InvalidOperationException {
+        scatterGather(n -> n.out.writeByte(Protocol.OP_MAINTAIN_ALL), n -> {
+        });
+    }
+
+    public synchronized FleetStats collectStats() throws IOException, InvalidOperationException {
+        FleetStats total = new FleetStats();
+        scatterGather(n -> n.out.writeByte(Protocol.OP_STATS), n -> Protocol.readStatsInto(n.in, total));
+        return total;
+    }
+
+    public String generateReport() throws IOException, InvalidOperationException {
+        return collectStats().toReport();
+    }
+
+    public synchronized int size() throws IOException, InvalidOperationException {
+        int[] total = new int[1];
+        scatterGather(n -> n.out.writeByte(Protocol.OP_SIZE), n -> total[0] += n.in.readInt());
+        return total[0];
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeClients();
+        for (FleetNode n : localNodes) n.close();
+        localNodes.clear();
+    }
+
+    // Sends the request to every node, then reads every reply that is owed before reporting a failure,
+    // so no reply is left unread on a connection. The first failure is thrown with the rest suppressed.
+    private void scatterGather(NodeIo request, NodeIo reply) throws IOException, InvalidOperationException {
+        Exception first = null;
+        boolean[] sent = new boolean[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            try {
+                request.apply(nodes[i]);
+                nodes[i].out.flush();
+                sent[i] = true;
+            } catch (IOException e) {
+                first = addFailure(first, e);
+            }
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            if (!sent[i]) continue;
+            try {
+                nodes[i].readOk();
+                reply.apply(nodes[i]);
+            } catch (IOException | InvalidOperationException e) {
+                first = addFailure(first, e);
+            }
+        }
+        if (first instanceof IOException e) throw e;
+        if (first instanceof InvalidOperationException e) throw e;
+    }
+
+    private static Exception addFailure(Exception first, Exception e) {
+        if (first == null) return e;
+        first.addSuppressed(e);
+        return first;
+    }
+
+    private interface NodeIo {
+        void apply(NodeClient n) throws IOException;
+    }
+
+    private NodeClient nodeFor(String id) {
+        int i = Arrays.binarySearch(splitPoints, id);
+        return nodes[i >= 0 ? i + 1 : -i - 1];
+    }
+
+    private void closeClients() {
+        for (NodeClient n : nodes) {
+            if (n == null) continue;
+            try {
+                n.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
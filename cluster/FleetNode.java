@@ -0,0 +1,218 @@
+package cluster;
+
+import exceptions.*;
+import fleet.FleetManager;
+import fleet.FleetStats;
+import vehicles.Vehicle;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Map;
+
+// One partition of a clustered fleet: a FleetManager owning the vehicle IDs in [lowId, highId)
+// (null bounds are open) served over the binary protocol in Protocol. Requests from all
+// connections are applied one at a time.
+public class FleetNode implements AutoCloseable {
+    private final FleetManager manager = new FleetManager();
+    private final String lowId;
+    private final String highId;
+    private final ServerSocket server;
+    // Accepted connections and the threads serving them; guarded by itself
+    private final Map<Socket, Thread> connections = new HashMap<>();
+    private volatile boolean closing;
+
+    public FleetNode(String lowId, String highId, InetAddress bindAddress, int port) throws IOException {
+        this.lowId = lowId;
+        this.highId = highId;
+        this.server = new ServerSocket(port, 64, bindAddress);
+        Thread acceptor = new Thread(this::acceptLoop, "fleet-node-" + server.getLocalPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public static FleetNode startLocal(String lowId, String highId) throws IOException {
+        return new FleetNode(lowId, highId, InetAddress.getLoopbackAddress(), 0);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public String getLowId() {
+        return lowId;
+    }
+
+    public String getHighId() {
+        return highId;
+    }
+
+    public boolean owns(String id) {
+        return (lowId == null || id.compareTo(lowId) >= 0) && (highId == null || id.compareTo(highId) < 0);
+    }
+
+    // Stops accepting, disconnects every client and waits for the requests in progress to finish
+    @Override
+    public void close() throws IOException {
+        Map<Socket, Thread> open;
+        synchronized (connections) {
+            if (closing) return;
+            closing = true;
+            open = new HashMap<>(connections);
+        }
+        server.close();
+        for (Socket s : open.keySet()) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+            }
+        }
+        try {
+            for (Thread t : open.values()) t.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket s = server.accept();
+                s.setTcpNoDelay(true);
+                Thread t = new Thread(() -> serve(s), "fleet-node-conn-" + s.getPort());
+                t.setDaemon(true);
+                synchronized (connections) {
+                    if (closing) {
+                        s.close();
+                        continue;
+                    }
+                    connections.put(s, t);
+                }
+                t.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) System.out.println("Node accept error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket s) {
+        try {
+            serveConnection(s);
+        } finally {
+            synchronized (connections) {
+                connections.remove(s);
+            }
+        }
+    }
+
+    private void serveConnection(Socket s) {
+        try (s;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException eof) {
+                    return;
+                }
+                handle(op, in, out);
+                // flush only once the client has no more pipelined requests waiting
+                if (in.available() == 0) out.flush();
+            }
+        } catch (SocketException ignored) {
+        } catch (IOException e) {
+            if (!closing) System.out.println("Node connection error: " + e.getMessage());
+        }
+    }
+
+    private void handle(byte op, DataInputStream in, DataOutputStream out) throws IOException {
+        try {
+            switch (op) {
+                case Protocol.OP_ADD -> {
+                    byte[] record = Protocol.readVehicleBytes(in);
+                    if (record == null) {
+                        // Nothing after a bad length can be trusted, so answer and drop the connection
+                        writeError(out, Protocol.STATUS_ERROR, "Vehicle record length out of range");
+                        out.flush();
+                        throw new IOException("Vehicle record length out of range");
+                    }
+                    synchronized (manager) {
+                        Vehicle v;
+                        try {
+                            v = Protocol.decodeVehicle(record);
+                        } catch (IOException e) {
+                            throw new InvalidOperationException("Malformed vehicle record: " + e.getMessage());
+                        }
+                        if (!owns(v.getId())) throw new InvalidOperationException("Vehicle ID not owned by this node: " + v.getId());
+                        manager.addVehicle(v);
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                }
+                case Protocol.OP_REMOVE -> {
+                    String id = in.readUTF();
+                    synchronized (manager) {
+                        manager.removeVehicle(id);
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                }
+                case Protocol.OP_MOVE -> {
+                    String id = in.readUTF();
+                    double distance = in.readDouble();
+                    synchronized (manager) {
+                        Vehicle v = manager.getVehicle(id);
+                        if (v == null) throw new InvalidOperationException("Vehicle ID not found: " + id);
+                        v.move(distance);
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                }
+                case Protocol.OP_START_ALL -> {
+                    double distance = in.readDouble();
+                    synchronized (manager) {
+                        manager.startAllJourneys(distance);
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                }
+                case Protocol.OP_MAINTAIN_ALL -> {
+                    synchronized (manager) {
+                        manager.maintainAll();
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                }
+                case Protocol.OP_STATS -> {
+                    FleetStats stats;
+                    synchronized (manager) {
+                        stats = manager.collectStats();
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                    Protocol.writeStats(out, stats);
+                }
+                case Protocol.OP_SIZE -> {
+                    int n;
+                    synchronized (manager) {
+                        n = manager.size();
+                    }
+                    out.writeByte(Protocol.STATUS_OK);
+                    out.writeInt(n);
+                }
+                default -> throw new IOException("Unknown op " + op);
+            }
+        } catch (InvalidOperationException e) {
+            writeError(out, Protocol.STATUS_INVALID_OPERATION, e.getMessage());
+        } catch (InsufficientFuelException e) {
+            writeError(out, Protocol.STATUS_INSUFFICIENT_FUEL, e.getMessage());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            writeError(out, Protocol.STATUS_ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeError(DataOutputStream out, byte status, String message) throws IOException {
+        out.writeByte(status);
+        out.writeUTF(message == null ? "" : message);
+    }
+}
@@ -0,0 +1,48 @@
+package cluster;
+
+import exceptions.InsufficientFuelException;
+import exceptions.InvalidOperationException;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+// Connection to one FleetNode. Requests may be pipelined: send several, flush, then read the
+// responses in order. Callers serialize access.
+final class NodeClient implements Closeable {
+    private final Socket socket;
+    final DataInputStream in;
+    final DataOutputStream out;
+
+    NodeClient(InetSocketAddress address) throws IOException {
+        socket = new Socket();
+        socket.connect(address);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    void readStatus() throws IOException, InvalidOperationException, InsufficientFuelException {
+        byte status = in.readByte();
+        switch (status) {
+            case Protocol.STATUS_OK -> {
+            }
+            case Protocol.STATUS_INSUFFICIENT_FUEL -> throw new InsufficientFuelException(in.readUTF());
+            case Protocol.STATUS_INVALID_OPERATION, Protocol.STATUS_ERROR -> throw new InvalidOperationException(in.readUTF());
+            default -> throw new IOException("Unknown status " + status);
+        }
+    }
+
+    void readOk() throws IOException, InvalidOperationException {
+        try {
+            readStatus();
+        } catch (InsufficientFuelException e) {
+            throw new InvalidOperationException(e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
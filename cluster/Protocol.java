@@ -0,0 +1,83 @@
+package cluster;
+
+import codec.VehicleCodecs;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import fleet.FleetStats;
+import vehicles.Vehicle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Wire format: request = op byte + payload; response = status byte + payload (or UTF error message).
+final class Protocol {
+    static final byte OP_ADD = 1;           // int length + VehicleCodecs binary record
+    static final byte OP_REMOVE = 2;        // UTF id
+    static final byte OP_MOVE = 3;          // UTF id, double distance
+    static final byte OP_START_ALL = 4;     // double distance
+    static final byte OP_MAINTAIN_ALL = 5;
+    static final byte OP_STATS = 6;         // -> stats
+    static final byte OP_SIZE = 7;          // -> int
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_INVALID_OPERATION = 1;
+    static final byte STATUS_INSUFFICIENT_FUEL = 2;
+    static final byte STATUS_ERROR = 3;
+
+    // Far above any real record; a peer's length prefix is checked against it before allocating
+    static final int MAX_RECORD_BYTES = 1 << 16;
+
+    private Protocol() {
+    }
+
+    // Length-prefixed so a record the node rejects never desynchronizes the stream
+    static void writeVehicle(DataOutputStream out, Vehicle v) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+        VehicleCodecs.write(v, new DataOutputStream(buf));
+        out.writeInt(buf.size());
+        buf.writeTo(out);
+    }
+
+    // null if the length prefix is out of range; the stream is then out of step and must be dropped
+    static byte[] readVehicleBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_RECORD_BYTES) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    static Vehicle decodeVehicle(byte[] bytes) throws IOException, InvalidOperationException, OverloadException {
+        return VehicleCodecs.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    static void writeStats(DataOutputStream out, FleetStats s) throws IOException {
+        out.writeInt(s.getTotalVehicles());
+        out.writeInt(s.getCounts().size());
+        for (Map.Entry<String, Integer> e : s.getCounts().entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue());
+        }
+        out.writeDouble(s.getTotalEfficiency());
+        out.writeInt(s.getEfficiencyCount());
+        out.writeDouble(s.getTotalMileage());
+        out.writeInt(s.getMaintenanceCount());
+    }
+
+    static void readStatsInto(DataInputStream in, FleetStats into) throws IOException {
+        int vehicles = in.readInt();
+        int types = in.readInt();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < types; i++) counts.put(in.readUTF(), in.readInt());
+        double effSum = in.readDouble();
+        int effCount = in.readInt();
+        double mileage = in.readDouble();
+        int maintenance = in.readInt();
+        into.addPartial(vehicles, counts, effSum, effCount, mileage, maintenance);
+    }
+}
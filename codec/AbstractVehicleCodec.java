@@ -0,0 +1,90 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public abstract class AbstractVehicleCodec<T extends Vehicle> implements VehicleCodec<T> {
+    private final int tag;
+    private final String name;
+    private final Class<T> type;
+    private final String extraField;
+
+    protected AbstractVehicleCodec(int tag, String name, Class<T> type, String extraField) {
+        this.tag = tag;
+        this.name = name;
+        this.type = type;
+        this.extraField = extraField;
+    }
+
+    @Override
+    public int tag() {
+        return tag;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public String extraField() {
+        return extraField;
+    }
+
+    protected static StringBuilder field(StringBuilder out, String s) {
+        return out.append(',').append(s);
+    }
+
+    protected static StringBuilder field(StringBuilder out, double d) {
+        return out.append(',').append(d);
+    }
+
+    protected static StringBuilder field(StringBuilder out, int i) {
+        return out.append(',').append(i);
+    }
+
+    // Re-applies persisted state through the normal mutators so capacity checks still hold
+    protected static void restore(Vehicle v, double fuel, int passengers, double cargo, double mileage)
+            throws InvalidOperationException, OverloadException {
+        if (fuel > 0 && v instanceof FuelConsumable f) f.refuel(fuel);
+        if (passengers > 0 && v instanceof PassengerCarrier p) p.boardPassengers(passengers);
+        if (cargo > 0 && v instanceof CargoCarrier c) c.loadCargo(cargo);
+        if (mileage > 0) v.restoreMileage(mileage);
+    }
+
+    // Service counters trail the CSV row as mileageAtService,loadHours,serviceFuel; rows written
+    // before they existed load with the counters at zero, i.e. the whole odometer counts as unserviced
+    protected static void writeService(Vehicle v, StringBuilder out) {
+        field(out, v.getMileageAtService());
+        field(out, v.getLoadHoursSinceService());
+        field(out, v.getFuelSinceService());
+    }
+
+    protected static void restoreService(Vehicle v, String[] p, int from) {
+        if (p.length < from + 3) return;
+        v.restoreService(Double.parseDouble(p[from]), Double.parseDouble(p[from + 1]), Double.parseDouble(p[from + 2]));
+    }
+
+    protected static void writeService(Vehicle v, DataOutput out) throws IOException {
+        out.writeDouble(v.getMileageAtService());
+        out.writeDouble(v.getLoadHoursSinceService());
+        out.writeDouble(v.getFuelSinceService());
+    }
+
+    protected static void readService(Vehicle v, DataInput in) throws IOException {
+        v.restoreService(in.readDouble(), in.readDouble(), in.readDouble());
+    }
+}
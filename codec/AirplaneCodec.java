@@ -0,0 +1,71 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.Airplane;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Airplane,id,model,maxSpeed,fuel,maxAltitude,passengerCapacity,passengers,cargoCapacity,cargo,mileage[,mileageAtService,loadHours,serviceFuel]
+public class AirplaneCodec extends AbstractVehicleCodec<Airplane> {
+    public AirplaneCodec() {
+        super(4, "Airplane", Airplane.class, "maxAltitude");
+    }
+
+    @Override
+    public Airplane create(String id, String model, double maxSpeed, String extra) throws InvalidOperationException {
+        return new Airplane(id, model, maxSpeed, Double.parseDouble(extra));
+    }
+
+    @Override
+    public String extra(Airplane a) {
+        return String.valueOf(a.getMaxAltitude());
+    }
+
+    @Override
+    public void writeCsv(Airplane a, StringBuilder out) {
+        out.append(name());
+        field(out, a.getId());
+        field(out, a.getModel());
+        field(out, a.getMaxSpeed());
+        field(out, a.getFuelLevel());
+        field(out, a.getMaxAltitude());
+        field(out, a.getPassengerCapacity());
+        field(out, a.getCurrentPassengers());
+        field(out, a.getCargoCapacity());
+        field(out, a.getCurrentCargo());
+        field(out, a.getCurrentMileage());
+        writeService(a, out);
+    }
+
+    @Override
+    public Airplane readCsv(String[] p) throws InvalidOperationException, OverloadException {
+        Airplane a = new Airplane(p[1], p[2], Double.parseDouble(p[3]), Double.parseDouble(p[5]));
+        restore(a, Double.parseDouble(p[4]), Integer.parseInt(p[7]), Double.parseDouble(p[9]), Double.parseDouble(p[10]));
+        restoreService(a, p, 11);
+        return a;
+    }
+
+    @Override
+    public void write(Airplane a, DataOutput out) throws IOException {
+        out.writeUTF(a.getId());
+        out.writeUTF(a.getModel());
+        out.writeDouble(a.getMaxSpeed());
+        out.writeDouble(a.getMaxAltitude());
+        out.writeDouble(a.getFuelLevel());
+        out.writeInt(a.getCurrentPassengers());
+        out.writeDouble(a.getCurrentCargo());
+        out.writeDouble(a.getCurrentMileage());
+        writeService(a, out);
+    }
+
+    @Override
+    public Airplane read(DataInput in) throws IOException, InvalidOperationException, OverloadException {
+        Airplane a = new Airplane(in.readUTF(), in.readUTF(), in.readDouble(), in.readDouble());
+        restore(a, in.readDouble(), in.readInt(), in.readDouble(), in.readDouble());
+        readService(a, in);
+        return a;
+    }
+}
@@ -0,0 +1,71 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.Bus;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Bus,id,model,maxSpeed,numWheels,fuel,passengerCapacity,passengers,cargoCapacity,cargo,mileage[,mileageAtService,loadHours,serviceFuel]
+public class BusCodec extends AbstractVehicleCodec<Bus> {
+    public BusCodec() {
+        super(3, "Bus", Bus.class, "numWheels");
+    }
+
+    @Override
+    public Bus create(String id, String model, double maxSpeed, String extra) throws InvalidOperationException {
+        return new Bus(id, model, maxSpeed, Integer.parseInt(extra));
+    }
+
+    @Override
+    public String extra(Bus b) {
+        return String.valueOf(b.getNumWheels());
+    }
+
+    @Override
+    public void writeCsv(Bus b, StringBuilder out) {
+        out.append(name());
+        field(out, b.getId());
+        field(out, b.getModel());
+        field(out, b.getMaxSpeed());
+        field(out, b.getNumWheels());
+        field(out, b.getFuelLevel());
+        field(out, b.getPassengerCapacity());
+        field(out, b.getCurrentPassengers());
+        field(out, b.getCargoCapacity());
+        field(out, b.getCurrentCargo());
+        field(out, b.getCurrentMileage());
+        writeService(b, out);
+    }
+
+    @Override
+    public Bus readCsv(String[] p) throws InvalidOperationException, OverloadException {
+        Bus b = new Bus(p[1], p[2], Double.parseDouble(p[3]), Integer.parseInt(p[4]));
+        restore(b, Double.parseDouble(p[5]), Integer.parseInt(p[7]), Double.parseDouble(p[9]), Double.parseDouble(p[10]));
+        restoreService(b, p, 11);
+        return b;
+    }
+
+    @Override
+    public void write(Bus b, DataOutput out) throws IOException {
+        out.writeUTF(b.getId());
+        out.writeUTF(b.getModel());
+        out.writeDouble(b.getMaxSpeed());
+        out.writeInt(b.getNumWheels());
+        out.writeDouble(b.getFuelLevel());
+        out.writeInt(b.getCurrentPassengers());
+        out.writeDouble(b.getCurrentCargo());
+        out.writeDouble(b.getCurrentMileage());
+        writeService(b, out);
+    }
+
+    @Override
+    public Bus read(DataInput in) throws IOException, InvalidOperationException, OverloadException {
+        Bus b = new Bus(in.readUTF(), in.readUTF(), in.readDouble(), in.readInt());
+        restore(b, in.readDouble(), in.readInt(), in.readDouble(), in.readDouble());
+        readService(b, in);
+        return b;
+    }
+}
@@ -0,0 +1,68 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.Car;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Car,id,model,maxSpeed,numWheels,fuel,passengerCapacity,passengers,mileage[,mileageAtService,loadHours,serviceFuel]
+public class CarCodec extends AbstractVehicleCodec<Car> {
+    public CarCodec() {
+        super(1, "Car", Car.class, "numWheels");
+    }
+
+    @Override
+    public Car create(String id, String model, double maxSpeed, String extra) throws InvalidOperationException {
+        return new Car(id, model, maxSpeed, Integer.parseInt(extra));
+    }
+
+    @Override
+    public String extra(Car c) {
+        return String.valueOf(c.getNumWheels());
+    }
+
+    @Override
+    public void writeCsv(Car c, StringBuilder out) {
+        out.append(name());
+        field(out, c.getId());
+        field(out, c.getModel());
+        field(out, c.getMaxSpeed());
+        field(out, c.getNumWheels());
+        field(out, c.getFuelLevel());
+        field(out, c.getPassengerCapacity());
+        field(out, c.getCurrentPassengers());
+        field(out, c.getCurrentMileage());
+        writeService(c, out);
+    }
+
+    @Override
+    public Car readCsv(String[] p) throws InvalidOperationException, OverloadException {
+        Car c = new Car(p[1], p[2], Double.parseDouble(p[3]), Integer.parseInt(p[4]));
+        restore(c, Double.parseDouble(p[5]), Integer.parseInt(p[7]), 0.0, Double.parseDouble(p[8]));
+        restoreService(c, p, 9);
+        return c;
+    }
+
+    @Override
+    public void write(Car c, DataOutput out) throws IOException {
+        out.writeUTF(c.getId());
+        out.writeUTF(c.getModel());
+        out.writeDouble(c.getMaxSpeed());
+        out.writeInt(c.getNumWheels());
+        out.writeDouble(c.getFuelLevel());
+        out.writeInt(c.getCurrentPassengers());
+        out.writeDouble(c.getCurrentMileage());
+        writeService(c, out);
+    }
+
+    @Override
+    public Car read(DataInput in) throws IOException, InvalidOperationException, OverloadException {
+        Car c = new Car(in.readUTF(), in.readUTF(), in.readDouble(), in.readInt());
+        restore(c, in.readDouble(), in.readInt(), 0.0, in.readDouble());
+        readService(c, in);
+        return c;
+    }
+}
@@ -0,0 +1,74 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.CargoShip;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// CargoShip,id,model,maxSpeed,fuel,hasSail,cargoCapacity,cargo,mileage[,mileageAtService,loadHours,serviceFuel]
+public class CargoShipCodec extends AbstractVehicleCodec<CargoShip> {
+    public CargoShipCodec() {
+        super(5, "CargoShip", CargoShip.class, "hasSail");
+    }
+
+    @Override
+    public CargoShip create(String id, String model, double maxSpeed, String extra) throws InvalidOperationException {
+        return new CargoShip(id, model, maxSpeed, Boolean.parseBoolean(extra));
+    }
+
+    @Override
+    public String extra(CargoShip s) {
+        return String.valueOf(s.hasSail());
+    }
+
+    @Override
+    public void writeCsv(CargoShip s, StringBuilder out) {
+        out.append(name());
+        field(out, s.getId());
+        field(out, s.getModel());
+        field(out, s.getMaxSpeed());
+        field(out, s.getFuelLevel());
+        out.append(',').append(s.hasSail());
+        field(out, s.getCargoCapacity());
+        field(out, s.getCurrentCargo());
+        field(out, s.getCurrentMileage());
+        writeService(s, out);
+    }
+
+    @Override
+    public CargoShip readCsv(String[] p) throws InvalidOperationException, OverloadException {
+        boolean hasSail = Boolean.parseBoolean(p[5]);
+        CargoShip s = new CargoShip(p[1], p[2], Double.parseDouble(p[3]), hasSail);
+        restore(s, hasSail ? 0.0 : Double.parseDouble(p[4]), 0, Double.parseDouble(p[7]), Double.parseDouble(p[8]));
+        restoreService(s, p, 9);
+        return s;
+    }
+
+    @Override
+    public void write(CargoShip s, DataOutput out) throws IOException {
+        out.writeUTF(s.getId());
+        out.writeUTF(s.getModel());
+        out.writeDouble(s.getMaxSpeed());
+        out.writeBoolean(s.hasSail());
+        out.writeDouble(s.getFuelLevel());
+        out.writeDouble(s.getCurrentCargo());
+        out.writeDouble(s.getCurrentMileage());
+        writeService(s, out);
+    }
+
+    @Override
+    public CargoShip read(DataInput in) throws IOException, InvalidOperationException, OverloadException {
+        String id = in.readUTF();
+        String model = in.readUTF();
+        double maxSpeed = in.readDouble();
+        boolean hasSail = in.readBoolean();
+        CargoShip s = new CargoShip(id, model, maxSpeed, hasSail);
+        double fuel = in.readDouble();
+        restore(s, hasSail ? 0.0 : fuel, 0, in.readDouble(), in.readDouble());
+        readService(s, in);
+        return s;
+    }
+}
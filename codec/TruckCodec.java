@@ -0,0 +1,68 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.Truck;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Truck,id,model,maxSpeed,numWheels,fuel,cargoCapacity,cargo,mileage[,mileageAtService,loadHours,serviceFuel]
+public class TruckCodec extends AbstractVehicleCodec<Truck> {
+    public TruckCodec() {
+        super(2, "Truck", Truck.class, "numWheels");
+    }
+
+    @Override
+    public Truck create(String id, String model, double maxSpeed, String extra) throws InvalidOperationException {
+        return new Truck(id, model, maxSpeed, Integer.parseInt(extra));
+    }
+
+    @Override
+    public String extra(Truck t) {
+        return String.valueOf(t.getNumWheels());
+    }
+
+    @Override
+    public void writeCsv(Truck t, StringBuilder out) {
+        out.append(name());
+        field(out, t.getId());
+        field(out, t.getModel());
+        field(out, t.getMaxSpeed());
+        field(out, t.getNumWheels());
+        field(out, t.getFuelLevel());
+        field(out, t.getCargoCapacity());
+        field(out, t.getCurrentCargo());
+        field(out, t.getCurrentMileage());
+        writeService(t, out);
+    }
+
+    @Override
+    public Truck readCsv(String[] p) throws InvalidOperationException, OverloadException {
+        Truck t = new Truck(p[1], p[2], Double.parseDouble(p[3]), Integer.parseInt(p[4]));
+        restore(t, Double.parseDouble(p[5]), 0, Double.parseDouble(p[7]), Double.parseDouble(p[8]));
+        restoreService(t, p, 9);
+        return t;
+    }
+
+    @Override
+    public void write(Truck t, DataOutput out) throws IOException {
+        out.writeUTF(t.getId());
+        out.writeUTF(t.getModel());
+        out.writeDouble(t.getMaxSpeed());
+        out.writeInt(t.getNumWheels());
+        out.writeDouble(t.getFuelLevel());
+        out.writeDouble(t.getCurrentCargo());
+        out.writeDouble(t.getCurrentMileage());
+        writeService(t, out);
+    }
+
+    @Override
+    public Truck read(DataInput in) throws IOException, InvalidOperationException, OverloadException {
+        Truck t = new Truck(in.readUTF(), in.readUTF(), in.readDouble(), in.readInt());
+        restore(t, in.readDouble(), 0, in.readDouble(), in.readDouble());
+        readService(t, in);
+        return t;
+    }
+}
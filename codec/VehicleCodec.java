@@ -0,0 +1,39 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.Vehicle;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// Everything persistence, the wire protocols and type lookup need to know about one vehicle class.
+// Register new types with VehicleCodecs.register(); the tag is written to binary data and must
+// never be reused for a different type.
+public interface VehicleCodec<T extends Vehicle> {
+    int tag();
+
+    // Type column in CSV rows and the name used by search and the command protocols
+    String name();
+
+    Class<T> type();
+
+    // Label for the type-specific constructor argument, e.g. "numWheels"
+    String extraField();
+
+    T create(String id, String model, double maxSpeed, String extra) throws InvalidOperationException;
+
+    // The extra constructor argument of v, in the form create() accepts
+    String extra(T v);
+
+    // Appends the full CSV row (starting with name()) without a line terminator
+    void writeCsv(T v, StringBuilder out);
+
+    T readCsv(String[] fields) throws InvalidOperationException, OverloadException;
+
+    // Body only; VehicleCodecs writes the tag in front of it
+    void write(T v, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException, InvalidOperationException, OverloadException;
+}
@@ -0,0 +1,124 @@
+package codec;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import vehicles.Vehicle;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registry of VehicleCodecs with O(1) dispatch by tag (array), by name (hash map) and by vehicle
+// class (ClassValue, which also resolves unregistered subclasses to their nearest registered
+// superclass).
+public final class VehicleCodecs {
+    private static final int MAX_TAG = 127;
+
+    private static final VehicleCodec<?>[] byTag = new VehicleCodec<?>[MAX_TAG + 1];
+    private static final Map<String, VehicleCodec<?>> byName = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, VehicleCodec<?>> byExactType = new ConcurrentHashMap<>();
+    private static final List<VehicleCodec<?>> all = new ArrayList<>();
+    private static volatile ClassValue<VehicleCodec<?>> byType = newTypeCache();
+
+    static {
+        register(new CarCodec());
+        register(new TruckCodec());
+        register(new BusCodec());
+        register(new AirplaneCodec());
+        register(new CargoShipCodec());
+    }
+
+    private VehicleCodecs() {
+    }
+
+    public static synchronized void register(VehicleCodec<?> codec) {
+        int tag = codec.tag();
+        if (tag <= 0 || tag > MAX_TAG) throw new IllegalArgumentException("Codec tag must be 1.." + MAX_TAG + ": " + tag);
+        if (byTag[tag] != null) throw new IllegalArgumentException("Codec tag already registered: " + tag);
+        if (byName.containsKey(codec.name())) throw new IllegalArgumentException("Codec name already registered: " + codec.name());
+        if (byExactType.containsKey(codec.type())) throw new IllegalArgumentException("Codec type already registered: " + codec.type());
+        byTag[tag] = codec;
+        byName.put(codec.name(), codec);
+        byExactType.put(codec.type(), codec);
+        all.add(codec);
+        byType = newTypeCache();
+    }
+
+    public static synchronized List<VehicleCodec<?>> all() {
+        return Collections.unmodifiableList(new ArrayList<>(all));
+    }
+
+    public static VehicleCodec<?> forTag(int tag) {
+        return tag > 0 && tag <= MAX_TAG ? byTag[tag] : null;
+    }
+
+    public static VehicleCodec<?> forName(String name) {
+        return byName.get(name);
+    }
+
+    public static Class<? extends Vehicle> typeForName(String name) {
+        VehicleCodec<?> c = byName.get(name);
+        return c == null ? null : c.type();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Vehicle> VehicleCodec<T> forType(Class<T> type) {
+        return (VehicleCodec<T>) byType.get(type);
+    }
+
+    public static String toCsv(Vehicle v) {
+        StringBuilder sb = new StringBuilder(96);
+        writeCsv(v, sb);
+        return sb.toString();
+    }
+
+    // Appends nothing for vehicle classes without a codec
+    public static void writeCsv(Vehicle v, StringBuilder out) {
+        VehicleCodec<Vehicle> c = codecOf(v);
+        if (c != null) c.writeCsv(v, out);
+    }
+
+    public static Vehicle fromCsv(String line) throws InvalidOperationException, OverloadException {
+        String[] p = line.split(",");
+        VehicleCodec<?> c = byName.get(p[0]);
+        if (c == null) throw new InvalidOperationException("Unknown type: " + p[0]);
+        return c.readCsv(p);
+    }
+
+    public static void write(Vehicle v, DataOutput out) throws IOException {
+        VehicleCodec<Vehicle> c = codecOf(v);
+        if (c == null) throw new IOException("No codec for " + v.getClass().getName());
+        out.writeByte(c.tag());
+        c.write(v, out);
+    }
+
+    public static Vehicle read(DataInput in) throws IOException, InvalidOperationException, OverloadException {
+        int tag = in.readUnsignedByte();
+        VehicleCodec<?> c = forTag(tag);
+        if (c == null) throw new IOException("Unknown vehicle tag: " + tag);
+        return c.read(in);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VehicleCodec<Vehicle> codecOf(Vehicle v) {
+        return (VehicleCodec<Vehicle>) byType.get(v.getClass());
+    }
+
+    private static ClassValue<VehicleCodec<?>> newTypeCache() {
+        return new ClassValue<>() {
+            @Override
+            protected VehicleCodec<?> computeValue(Class<?> type) {
+                for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                    VehicleCodec<?> codec = byExactType.get(c);
+                    if (codec != null) return codec;
+                }
+                return null;
+            }
+        };
+    }
+}
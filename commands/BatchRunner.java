@@ -0,0 +1,267 @@
+package commands;
+
+import exceptions.InvalidOperationException;
+import fleet.FleetManager;
+import interfaces.FuelConsumable;
+import util.JsonLine;
+import vehicles.Vehicle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Replays a command script against a FleetManager. Each line is either a CommandProcessor text
+// command or a JSON object such as {"cmd":"add","type":"Truck","id":"T9","model":"Volvo",
+// "maxSpeed":100,"extra":6}. Runs of consecutive ADD or REFUEL commands are executed as one bulk
+// call (FleetManager.addVehicles / refuelAll) and their replies are written in one chunk; every
+// other command runs on its own. Replies always come out in input order.
+public class BatchRunner {
+    private static final int MAX_GROUP = 4096;
+    private static final Set<String> GROUPABLE = Set.of("ADD", "REFUEL");
+
+    private final CommandProcessor processor;
+    private final FleetManager manager;
+
+    public BatchRunner(FleetManager manager) {
+        this.manager = manager;
+        this.processor = new CommandProcessor(manager);
+    }
+
+    public Summary run(BufferedReader in, Writer out) throws IOException {
+        Summary summary = new Summary();
+        long start = System.nanoTime();
+        List<String> group = new ArrayList<>();
+        String groupKind = null;
+        StringBuilder replies = new StringBuilder();
+        String raw;
+        while ((raw = in.readLine()) != null) {
+            summary.lines++;
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String command = null;
+            String malformed = null;
+            try {
+                command = line.startsWith("{") ? fromJson(line) : line;
+            } catch (RuntimeException e) {
+                malformed = e.getMessage();
+            }
+            String kind = command == null ? null : kindOf(command);
+            // A malformed line also ends the pending group, so its error is written after the group's replies
+            if (groupKind != null && (!groupKind.equals(kind) || group.size() == MAX_GROUP)) {
+                runGroup(groupKind, group, replies, summary);
+                group.clear();
+                groupKind = null;
+            }
+            if (command == null) {
+                replies.append("ERR Malformed line ").append(summary.lines).append(": ").append(malformed).append('\n');
+                summary.errors++;
+            } else if (GROUPABLE.contains(kind)) {
+                groupKind = kind;
+                group.add(command);
+            } else {
+                runGroup(kind, List.of(command), replies, summary);
+            }
+            if (replies.length() > 0) {
+                out.append(replies);
+                replies.setLength(0);
+            }
+        }
+        if (groupKind != null) {
+            runGroup(groupKind, group, replies, summary);
+            out.append(replies);
+        }
+        out.flush();
+        summary.nanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    private void runGroup(String kind, List<String> commands, StringBuilder replies, Summary summary) {
+        long start = System.nanoTime();
+        int before = replies.length();
+        if (kind.equals("ADD")) {
+            addGroup(commands, replies);
+        } else if (kind.equals("REFUEL")) {
+            refuelGroup(commands, replies);
+        } else {
+            for (String c : commands) processor.execute(c, replies);
+        }
+        summary.record(kind, commands.size(), System.nanoTime() - start);
+        summary.groups++;
+        summary.errors += countErrors(replies, before);
+    }
+
+    private static int countErrors(StringBuilder replies, int from) {
+        int n = replies.indexOf("ERR ", from) == from ? 1 : 0;
+        for (int i = replies.indexOf("\nERR ", from); i >= 0; i = replies.indexOf("\nERR ", i + 1)) n++;
+        return n;
+    }
+
+    private void addGroup(List<String> commands, StringBuilder replies) {
+        String[] results = new String[commands.size()];
+        List<Vehicle> vehicles = new ArrayList<>(commands.size());
+        List<Integer> positions = new ArrayList<>(commands.size());
+        for (int i = 0; i < results.length; i++) {
+            String[] p = commands.get(i).split("\\s+");
+            try {
+                if (p.length < 6) throw new IllegalArgumentException("Expected 5 argument(s) for ADD");
+                vehicles.add(CommandProcessor.createVehicle(p[1], p[2], p[3], Double.parseDouble(p[4]), p[5]));
+                positions.add(i);
+            } catch (Exception e) {
+                results[i] = "ERR " + e.getMessage() + "\n";
+            }
+        }
+        Set<Vehicle> rejected = new HashSet<>(manager.addVehicles(vehicles));
+        for (int k = 0; k < vehicles.size(); k++) {
+            Vehicle v = vehicles.get(k);
+            // A rejected vehicle whose ID isn't taken was turned away by the fleet's limit
+            String reply;
+            if (!rejected.contains(v)) reply = "OK " + v.getId();
+            else if (manager.getVehicle(v.getId()) != null) reply = "ERR Vehicle ID already exists: " + v.getId();
+            else reply = "ERR Fleet is at its limit of " + manager.getMaxVehicles() + " vehicles";
+            results[positions.get(k)] = reply + "\n";
+        }
+        for (String r : results) replies.append(r);
+    }
+
+    // Valid refuels are applied by one refuelAll call with the requested amounts as the allocation.
+    // Lines that would fail, or that refuelAll would skip, run through the processor for its reply.
+    private void refuelGroup(List<String> commands, StringBuilder replies) {
+        String[] results = new String[commands.size()];
+        Vehicle[] targets = new Vehicle[results.length];
+        double[] amounts = new double[results.length];
+        Map<Vehicle, double[]> requested = new IdentityHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            String[] p = commands.get(i).trim().split("\\s+");
+            Vehicle v = p.length == 3 ? manager.getVehicle(p[1]) : null;
+            double amount = v == null ? Double.NaN : parseOrNaN(p[2]);
+            if (!(v instanceof FuelConsumable) || !(amount > 0) || !(v.calculateFuelEfficiency() > 0)) {
+                results[i] = processor.execute(commands.get(i));
+                continue;
+            }
+            targets[i] = v;
+            amounts[i] = amount;
+            // {fuel before the group, total requested}
+            requested.computeIfAbsent(v, k -> new double[]{((FuelConsumable) k).getFuelLevel(), 0.0})[1] += amount;
+        }
+        if (!requested.isEmpty()) {
+            try {
+                // amounts are explicit, so the budget must never scale them down
+                manager.refuelAll(Double.POSITIVE_INFINITY, (vehicles, fuel, efficiency, budget, out) -> {
+                    for (int i = 0; i < vehicles.length; i++) {
+                        double[] r = requested.get(vehicles[i]);
+                        out[i] = r == null ? 0.0 : r[1];
+                    }
+                });
+            } catch (InvalidOperationException e) {
+                for (int i = 0; i < results.length; i++) {
+                    if (targets[i] != null) results[i] = "ERR " + e.getMessage() + "\n";
+                }
+                targets = new Vehicle[0];
+            }
+        }
+        // Each reply shows the fuel level as of its own line, as if the refuels had run one by one
+        Map<Vehicle, Double> running = new IdentityHashMap<>();
+        for (int i = 0; i < targets.length; i++) {
+            Vehicle v = targets[i];
+            if (v == null) continue;
+            double level = running.getOrDefault(v, requested.get(v)[0]) + amounts[i];
+            running.put(v, level);
+            results[i] = "OK " + level + "\n";
+        }
+        for (String r : results) replies.append(r);
+    }
+
+    private static double parseOrNaN(String s) {
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String kindOf(String command) {
+        int sp = command.indexOf(' ');
+        return (sp < 0 ? command : command.substring(0, sp)).toUpperCase();
+    }
+
+    static String fromJson(String line) {
+        Map<String, String> m = JsonLine.parse(line);
+        String cmd = m.get("cmd");
+        if (cmd == null) throw new IllegalArgumentException("missing \"cmd\"");
+        cmd = cmd.toUpperCase();
+        return switch (cmd) {
+            case "ADD" -> {
+                String extra = firstOf(m, "extra", "numWheels", "maxAltitude", "hasSail");
+                yield String.join(" ", cmd, req(m, "type"), req(m, "id"), req(m, "model"), req(m, "maxSpeed"),
+                        extra == null ? "" : extra);
+            }
+            case "REMOVE" -> cmd + " " + req(m, "id");
+            case "MOVE" -> cmd + " " + req(m, "id") + " " + req(m, "distance");
+            case "JOURNEY" -> cmd + " " + req(m, "distance");
+            case "REFUEL" -> cmd + " " + req(m, "id") + " " + req(m, "amount");
+            case "REFUEL_ALL" -> cmd + " " + req(m, "amount");
+            case "SEARCH" -> cmd + " " + req(m, "type");
+            default -> cmd;
+        };
+    }
+
+    private static String req(Map<String, String> m, String key) {
+        String v = m.get(key);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException("missing \"" + key + "\"");
+        if (v.chars().anyMatch(Character::isWhitespace)) throw new IllegalArgumentException("whitespace in \"" + key + "\"");
+        return v;
+    }
+
+    private static String firstOf(Map<String, String> m, String... keys) {
+        for (String k : keys) {
+            if (m.get(k) != null) return req(m, k);
+        }
+        return null;
+    }
+
+    public static class Summary {
+        private final Map<String, long[]> perCommand = new TreeMap<>();
+        long lines;
+        long groups;
+        long errors;
+        long nanos;
+
+        void record(String kind, int count, long elapsed) {
+            long[] s = perCommand.computeIfAbsent(kind, k -> new long[2]);
+            s[0] += count;
+            s[1] += elapsed;
+        }
+
+        public long getCommands() {
+            long n = 0;
+            for (long[] s : perCommand.values()) n += s[0];
+            return n;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            double secs = nanos / 1e9;
+            long commands = getCommands();
+            sb.append("=== Batch Summary ===\n");
+            sb.append(String.format("Lines: %d, commands: %d, groups: %d, errors: %d%n", lines, commands, groups, errors));
+            sb.append(String.format("Total time: %.3f s (%.0f commands/s)%n", secs, commands / Math.max(secs, 1e-9)));
+            for (Map.Entry<String, long[]> e : perCommand.entrySet()) {
+                long[] s = e.getValue();
+                sb.append(String.format("  %-10s %8d in %8.3f ms%n", e.getKey(), s[0], s[1] / 1e6));
+            }
+            return sb.toString();
+        }
+    }
+}
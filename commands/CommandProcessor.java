@@ -0,0 +1,136 @@
+package commands;
+
+import codec.VehicleCodec;
+import codec.VehicleCodecs;
+import exceptions.*;
+import fleet.FleetManager;
+import fleet.RefuelPolicies;
+import fleet.RefuelSummary;
+import interfaces.FuelConsumable;
+import vehicles.*;
+
+import java.util.List;
+
+// Executes one line of the text command protocol against a FleetManager. Callers serialize access.
+//
+//   ADD <type> <id> <model> <maxSpeed> <numWheels|maxAltitude|hasSail>
+//   REMOVE <id>            MOVE <id> <distance>      JOURNEY <distance>
+//   REFUEL <id> <amount>   REFUEL_ALL <amount>       MAINTAIN
+//   REPORT                 SEARCH <type>             SIZE        PING
+//
+// Replies are "OK [text]", "ERR <message>", or "DATA <n>" followed by n lines.
+public class CommandProcessor {
+    private final FleetManager manager;
+
+    public CommandProcessor(FleetManager manager) {
+        this.manager = manager;
+    }
+
+    public FleetManager getManager() {
+        return manager;
+    }
+
+    public void execute(String line, StringBuilder out) {
+        String[] p = line.trim().split("\\s+");
+        if (p.length == 0 || p[0].isEmpty()) return;
+        try {
+            switch (p[0].toUpperCase()) {
+                case "PING" -> ok(out, "PONG");
+                case "ADD" -> {
+                    need(p, 6);
+                    Vehicle v = createVehicle(p[1], p[2], p[3], Double.parseDouble(p[4]), p[5]);
+                    manager.addVehicle(v);
+                    ok(out, v.getId());
+                }
+                case "REMOVE" -> {
+                    need(p, 2);
+                    manager.removeVehicle(p[1]);
+                    ok(out, p[1]);
+                }
+                case "MOVE" -> {
+                    need(p, 3);
+                    vehicle(p[1]).move(Double.parseDouble(p[2]));
+                    ok(out, p[1]);
+                }
+                case "JOURNEY" -> {
+                    need(p, 2);
+                    manager.startAllJourneys(Double.parseDouble(p[1]));
+                    ok(out, null);
+                }
+                case "REFUEL" -> {
+                    need(p, 3);
+                    if (!(vehicle(p[1]) instanceof FuelConsumable f)) {
+                        throw new InvalidOperationException("Vehicle does not use fuel: " + p[1]);
+                    }
+                    f.refuel(Double.parseDouble(p[2]));
+                    ok(out, String.valueOf(f.getFuelLevel()));
+                }
+                case "REFUEL_ALL" -> {
+                    need(p, 2);
+                    double amount = Double.parseDouble(p[1]);
+                    if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive");
+                    RefuelSummary summary = manager.refuelAll(Double.POSITIVE_INFINITY, RefuelPolicies.fixed(amount));
+                    ok(out, String.valueOf(summary.getRefueled()));
+                }
+                case "MAINTAIN" -> {
+                    manager.maintainAll();
+                    ok(out, null);
+                }
+                case "REPORT" -> data(out, manager.generateReport().split("\n"));
+                case "SEARCH" -> {
+                    need(p, 2);
+                    Class<? extends Vehicle> type = VehicleCodecs.typeForName(p[1]);
+                    if (type == null) throw new InvalidOperationException("Invalid type: " + p[1]);
+                    List<Vehicle> found = manager.searchByType(type);
+                    String[] rows = new String[found.size()];
+                    for (int i = 0; i < rows.length; i++) rows[i] = VehicleCodecs.toCsv(found.get(i));
+                    data(out, rows);
+                }
+                case "SIZE" -> ok(out, String.valueOf(manager.size()));
+                default -> err(out, "Unknown command: " + p[0]);
+            }
+        } catch (NumberFormatException e) {
+            err(out, "Invalid number: " + e.getMessage());
+        } catch (Exception e) {
+            err(out, e.getMessage());
+        }
+    }
+
+    public String execute(String line) {
+        StringBuilder sb = new StringBuilder();
+        execute(line, sb);
+        return sb.toString();
+    }
+
+    public static Vehicle createVehicle(String type, String id, String model, double maxSpeed, String extra)
+            throws InvalidOperationException {
+        VehicleCodec<?> codec = VehicleCodecs.forName(type);
+        if (codec == null) throw new InvalidOperationException("Unknown type: " + type);
+        return codec.create(id, model, maxSpeed, extra);
+    }
+
+    private Vehicle vehicle(String id) throws InvalidOperationException {
+        Vehicle v = manager.getVehicle(id);
+        if (v == null) throw new InvalidOperationException("Vehicle ID not found: " + id);
+        return v;
+    }
+
+    private static void need(String[] p, int n) throws InvalidOperationException {
+        if (p.length < n) throw new InvalidOperationException("Expected " + (n - 1) + " argument(s) for " + p[0]);
+    }
+
+    private static void ok(StringBuilder out, String text) {
+        out.append("OK");
+        if (text != null) out.append(' ').append(text);
+        out.append('\n');
+    }
+
+    private static void err(StringBuilder out, String message) {
+        out.append("ERR ").append(message == null ? "error" : message.replace('\n', ' ')).append('\n');
+    }
+
+    private static void data(StringBuilder out, String[] rows) {
+        out.append("DATA ").append(rows.length).append('\n');
+        for (String r : rows) out.append(r).append('\n');
+    }
+}
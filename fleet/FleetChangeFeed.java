@@ -0,0 +1,268 @@
+package fleet;
+
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.VehicleListener;
+import vehicles.Vehicle;
+import vehicles.VehicleChange;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pushes fleet changes to Flow subscribers so dashboards don't have to poll full reports.
+// Every subscriber has its own bounded buffer keyed by (vehicle, kind): a newer event replaces
+// a queued one for the same key and moves to the back of the queue, so the last event delivered
+// for a vehicle is always its latest. Delivery follows request(n); when a slow subscriber's
+// buffer is full the oldest queued event is dropped (counted in getDropped()), so a stalled
+// consumer never blocks fleet operations.
+//
+// FUEL_LOW fires after a move or burn leaves less than lowFuelRangeKm of driving in the tank,
+// MAINTENANCE_DUE when a vehicle is flagged or drives past its service interval.
+public class FleetChangeFeed implements Flow.Publisher<FleetEvent>, AutoCloseable {
+    public static final int DEFAULT_BUFFER = 1024;
+    public static final double DEFAULT_LOW_FUEL_RANGE_KM = 100.0;
+
+    private final FleetManager manager;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int bufferCapacity;
+    private final double lowFuelRangeKm;
+    private final CopyOnWriteArrayList<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final VehicleListener listener = this::vehicleChanged;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    public FleetChangeFeed(FleetManager manager) {
+        this(manager, null, DEFAULT_BUFFER, DEFAULT_LOW_FUEL_RANGE_KM);
+    }
+
+    // executor runs subscriber callbacks; null uses a private daemon thread
+    public FleetChangeFeed(FleetManager manager, Executor executor, int bufferCapacity, double lowFuelRangeKm) {
+        if (bufferCapacity < 1) throw new IllegalArgumentException("bufferCapacity must be >= 1");
+        this.manager = manager;
+        this.bufferCapacity = bufferCapacity;
+        this.lowFuelRangeKm = lowFuelRangeKm;
+        if (executor == null) {
+            ownedExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "fleet-change-feed");
+                t.setDaemon(true);
+                return t;
+            });
+            this.executor = ownedExecutor;
+        } else {
+            ownedExecutor = null;
+            this.executor = executor;
+        }
+        manager.addVehicleListener(listener);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super FleetEvent> subscriber) {
+        if (subscriber == null) throw new NullPointerException("subscriber");
+        FeedSubscription s = new FeedSubscription(subscriber);
+        if (closed) {
+            s.complete();
+            return;
+        }
+        subscriptions.add(s);
+        s.schedule();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void vehicleChanged(Vehicle v, VehicleChange change) {
+        if (subscriptions.isEmpty()) return;
+        switch (change) {
+            case ADDED -> publish(FleetEvent.Kind.ADDED, v);
+            case REMOVED -> publish(FleetEvent.Kind.REMOVED, v);
+            case MOVED -> {
+                publish(FleetEvent.Kind.MOVED, v);
+                checkFuel(v);
+                checkMaintenance(v);
+            }
+            case FUEL_CONSUMED -> checkFuel(v);
+            case REFUELED -> publish(FleetEvent.Kind.REFUELED, v);
+            case CARGO_CHANGED -> publish(FleetEvent.Kind.CARGO_CHANGED, v);
+            case PASSENGERS_CHANGED -> publish(FleetEvent.Kind.PASSENGERS_CHANGED, v);
+            case MAINTENANCE_SCHEDULED -> publish(FleetEvent.Kind.MAINTENANCE_DUE, v);
+            default -> {
+            }
+        }
+    }
+
+    private void checkFuel(Vehicle v) {
+        if (!(v instanceof FuelConsumable f)) return;
+        double eff = v.calculateFuelEfficiency();
+        if (eff > 0 && f.getFuelLevel() * eff < lowFuelRangeKm) publish(FleetEvent.Kind.FUEL_LOW, v);
+    }
+
+    private void checkMaintenance(Vehicle v) {
+        if (v instanceof Maintainable m && m.needsMaintenance()) publish(FleetEvent.Kind.MAINTENANCE_DUE, v);
+    }
+
+    private void publish(FleetEvent.Kind kind, Vehicle v) {
+        FleetEvent e = new FleetEvent(kind, v.getId(), v.getClass().getSimpleName(), v.getCurrentMileage(),
+                v instanceof FuelConsumable f ? f.getFuelLevel() : 0.0,
+                v instanceof CargoCarrier c ? c.getCurrentCargo() : 0.0,
+                System.currentTimeMillis());
+        for (FeedSubscription s : subscriptions) s.offer(e);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        manager.removeVehicleListener(listener);
+        for (FeedSubscription s : subscriptions) s.complete();
+        subscriptions.clear();
+        if (ownedExecutor != null) ownedExecutor.shutdown();
+    }
+
+    private final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super FleetEvent> subscriber;
+        private final LinkedHashMap<Key, FleetEvent> buffer = new LinkedHashMap<>();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        private boolean started;
+
+        FeedSubscription(Flow.Subscriber<? super FleetEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(FleetEvent e) {
+            if (cancelled || completed) return;
+            synchronized (buffer) {
+                Key key = new Key(e.getVehicleId(), e.getKind());
+                if (buffer.remove(key) == null && buffer.size() >= bufferCapacity) {
+                    Iterator<Key> it = buffer.keySet().iterator();
+                    it.next();
+                    it.remove();
+                    dropped.increment();
+                }
+                buffer.put(key, e);
+            }
+            if (demand.get() > 0) schedule();
+        }
+
+        void complete() {
+            completed = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) return;
+            if (n <= 0) {
+                error = new IllegalArgumentException("request must be positive (rule 3.9): " + n);
+                cancelled = true;
+                subscriptions.remove(this);
+            } else {
+                demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) executor.execute(this::drain);
+        }
+
+        // Only one drain runs at a time per subscriber, so signals stay serial
+        private void drain() {
+            int missed = 1;
+            if (!started) {
+                started = true;
+                subscriber.onSubscribe(this);
+            }
+            while (true) {
+                if (error != null) {
+                    Throwable t = error;
+                    error = null;
+                    subscriber.onError(t);
+                    return;
+                }
+                while (!cancelled && demand.get() > 0) {
+                    FleetEvent next;
+                    synchronized (buffer) {
+                        Iterator<FleetEvent> it = buffer.values().iterator();
+                        if (!it.hasNext()) break;
+                        next = it.next();
+                        it.remove();
+                    }
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(next);
+                    } catch (Throwable t) {
+                        // A subscriber that throws is treated as cancelled (rule 2.13); it gets no further signals
+                        cancel();
+                        return;
+                    }
+                }
+                if (completed && !cancelled) {
+                    boolean empty;
+                    synchronized (buffer) {
+                        empty = buffer.isEmpty();
+                    }
+                    if (empty) {
+                        cancelled = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) return;
+            }
+        }
+    }
+
+    private static final class Key {
+        final String vehicleId;
+        final FleetEvent.Kind kind;
+
+        Key(String vehicleId, FleetEvent.Kind kind) {
+            this.vehicleId = vehicleId;
+            this.kind = kind;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.kind == kind && k.vehicleId.equals(vehicleId);
+        }
+
+        @Override
+        public int hashCode() {
+            return vehicleId.hashCode() * 31 + kind.ordinal();
+        }
+    }
+}
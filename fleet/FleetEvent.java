@@ -0,0 +1,59 @@
+package fleet;
+
+// Snapshot of one vehicle at the moment something about it changed. Events for the same vehicle
+// and kind are coalesced while they wait in a subscriber's buffer, so a consumer always sees the
+// latest state rather than every intermediate step.
+public final class FleetEvent {
+    public enum Kind { ADDED, REMOVED, MOVED, REFUELED, FUEL_LOW, CARGO_CHANGED, PASSENGERS_CHANGED, MAINTENANCE_DUE }
+
+    private final Kind kind;
+    private final String vehicleId;
+    private final String type;
+    private final double mileage;
+    private final double fuel;
+    private final double cargo;
+    private final long timestamp;
+
+    FleetEvent(Kind kind, String vehicleId, String type, double mileage, double fuel, double cargo, long timestamp) {
+        this.kind = kind;
+        this.vehicleId = vehicleId;
+        this.type = type;
+        this.mileage = mileage;
+        this.fuel = fuel;
+        this.cargo = cargo;
+        this.timestamp = timestamp;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public double getMileage() {
+        return mileage;
+    }
+
+    public double getFuel() {
+        return fuel;
+    }
+
+    public double getCargo() {
+        return cargo;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + vehicleId + " (" + type + ") mileage=" + mileage + " fuel=" + fuel + " cargo=" + cargo;
+    }
+}
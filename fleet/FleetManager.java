@@ -3,56 +3,303 @@ package fleet;
 import vehicles.*;
 import interfaces.*;
 import exceptions.*;
+import codec.VehicleCodec;
+import codec.VehicleCodecs;
+import maintenance.WearRanking;
+import metrics.FleetMetrics;
+import metrics.FleetMetrics.Op;
+import profiling.JourneyBatchEvent;
+import profiling.MaintenanceEvent;
+import profiling.PersistenceEvent;
+import query.FleetQuery;
+import report.ReportFormatter;
+import report.ReportWriter;
+import spatial.SpatialGridIndex;
 
 import java.io.*;
 import java.util.*;
 
 public class FleetManager {
     private List<Vehicle> fleet;
+    private Map<String, Vehicle> index;
+    // Slot of each vehicle in fleet, so removal can swap the last vehicle into the gap
+    private Map<String, Integer> positions;
+    private Map<Class<? extends Vehicle>, Set<Vehicle>> byType;
+    private volatile VehicleListener[] listeners = new VehicleListener[0];
+    private final VehicleListener dispatcher = this::dispatch;
+    private final Object dispatchLock = new Object();
+    private FleetChangeFeed changes;
+    private SpatialGridIndex spatial;
+    private WearRanking wear;
+    // Most vehicles this fleet may hold; enforced on every path that adds vehicles
+    private int maxVehicles = Integer.MAX_VALUE;
+    // Bumped on every membership, order or vehicle state change; see estimateJourneys/generateReport
+    private long version;
+    private final Map<Double, JourneyEstimates> estimates = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Double, JourneyEstimates> eldest) {
+            return size() > 16;
+        }
+    };
+    private String cachedReport;
+    private long cachedReportVersion = -1;
 
     public FleetManager() {
         this.fleet = new ArrayList<>();
+        this.index = new HashMap<>();
+        this.positions = new HashMap<>();
+        this.byType = new HashMap<>();
+    }
+
+    // Listeners hear about vehicles joining and leaving the fleet and every change to a member
+    public synchronized void addVehicleListener(VehicleListener l) {
+        VehicleListener[] next = Arrays.copyOf(listeners, listeners.length + 1);
+        next[listeners.length] = l;
+        listeners = next;
+    }
+
+    public synchronized void removeVehicleListener(VehicleListener l) {
+        List<VehicleListener> next = new ArrayList<>(Arrays.asList(listeners));
+        next.remove(l);
+        listeners = next.toArray(new VehicleListener[0]);
+    }
+
+    // Push-based alternative to polling generateReport(); created on first use, and again after a close()
+    public synchronized FleetChangeFeed changes() {
+        if (changes == null || changes.isClosed()) changes = new FleetChangeFeed(this);
+        return changes;
+    }
+
+    // Grid index over vehicle positions, kept current as vehicles move; created on first use
+    public synchronized SpatialGridIndex spatial() {
+        if (spatial == null) {
+            spatial = new SpatialGridIndex();
+            spatial.attach(this);
+        }
+        return spatial;
+    }
+
+    // Vehicles ranked by wear since their last service, kept current as they move; created on first use
+    public synchronized WearRanking wearRanking() {
+        if (wear == null) {
+            wear = new WearRanking();
+            wear.attach(this);
+        }
+        return wear;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Vehicle changes can arrive from several threads at once (TelemetryPipeline's workers each own
+    // a slice of the fleet), so the version bump and listener fan-out are serialized
+    private void dispatch(Vehicle v, VehicleChange change) {
+        synchronized (dispatchLock) {
+            bumpVersion();
+            for (VehicleListener l : listeners) l.vehicleChanged(v, change);
+        }
+    }
+
+    // Estimates for an older version can never be returned again; drop them so they don't pin
+    // removed vehicles
+    private void bumpVersion() {
+        version++;
+        if (!estimates.isEmpty()) estimates.clear();
+    }
+
+    private void attach(Vehicle v) {
+        v.setListener(dispatcher);
+        dispatch(v, VehicleChange.ADDED);
+    }
+
+    private void detach(Vehicle v) {
+        if (v.getListener() == dispatcher) v.setListener(null);
+        dispatch(v, VehicleChange.REMOVED);
     }
 
+    // Read-only view; membership changes go through addVehicle/removeVehicle so the indexes stay in step
     public List<Vehicle> getFleet() {
-        return fleet;
+        return Collections.unmodifiableList(fleet);
+    }
+
+    public Vehicle getVehicle(String id) {
+        return index.get(id);
+    }
+
+    public int size() {
+        return fleet.size();
+    }
+
+    public int getMaxVehicles() {
+        return maxVehicles;
+    }
+
+    // Only limits later additions; vehicles already in the fleet stay
+    public void setMaxVehicles(int maxVehicles) {
+        if (maxVehicles < 0) throw new IllegalArgumentException("maxVehicles must be >= 0");
+        this.maxVehicles = maxVehicles;
     }
 
     public void addVehicle(Vehicle v) throws InvalidOperationException {
-        for (Vehicle existing : fleet) {
-            if (existing.getId().equals(v.getId())) {
-                throw new InvalidOperationException("Vehicle ID already exists: " + v.getId());
+        long start = FleetMetrics.start();
+        if (fleet.size() >= maxVehicles) {
+            InvalidOperationException e = new InvalidOperationException("Fleet is at its limit of " + maxVehicles + " vehicles");
+            FleetMetrics.failure(Op.ADD_VEHICLE, v.getClass(), e);
+            throw e;
+        }
+        if (index.putIfAbsent(v.getId(), v) != null) {
+            InvalidOperationException e = new InvalidOperationException("Vehicle ID already exists: " + v.getId());
+            FleetMetrics.failure(Op.ADD_VEHICLE, v.getClass(), e);
+            throw e;
+        }
+        append(v);
+        byType.computeIfAbsent(v.getClass(), k -> new LinkedHashSet<>()).add(v);
+        attach(v);
+        FleetMetrics.success(Op.ADD_VEHICLE, v.getClass(), start);
+    }
+
+    // Bulk add; vehicles whose ID is already taken (in the fleet or earlier in the batch), or that
+    // would take the fleet past its limit, are skipped and returned in input order
+    public List<Vehicle> addVehicles(Collection<? extends Vehicle> vehicles) {
+        long start = FleetMetrics.start();
+        List<Vehicle> rejected = new ArrayList<>();
+        if (fleet instanceof ArrayList<Vehicle> list) list.ensureCapacity(fleet.size() + vehicles.size());
+        for (Vehicle v : vehicles) {
+            if (fleet.size() >= maxVehicles || index.putIfAbsent(v.getId(), v) != null) {
+                rejected.add(v);
+                continue;
             }
+            append(v);
+            byType.computeIfAbsent(v.getClass(), k -> new LinkedHashSet<>()).add(v);
+            attach(v);
         }
-        fleet.add(v);
+        FleetMetrics.success(Op.ADD_VEHICLE, start);
+        return rejected;
     }
 
     public void removeVehicle(String id) throws InvalidOperationException {
-        boolean removed = false;
-        Iterator<Vehicle> it = fleet.iterator();
-        while (it.hasNext()) {
-            Vehicle v = it.next();
-            if (v.getId().equals(id)) {
-                it.remove();
-                removed = true;
-                break;
+        long start = FleetMetrics.start();
+        Vehicle v = index.remove(id);
+        if (v == null) {
+            InvalidOperationException e = new InvalidOperationException("Vehicle ID not found: " + id);
+            FleetMetrics.failure(Op.REMOVE_VEHICLE, e);
+            throw e;
+        }
+        unlink(v);
+        byType.get(v.getClass()).remove(v);
+        detach(v);
+        FleetMetrics.success(Op.REMOVE_VEHICLE, v.getClass(), start);
+    }
+
+    private void append(Vehicle v) {
+        positions.put(v.getId(), fleet.size());
+        fleet.add(v);
+    }
+
+    // O(1) removal: the last vehicle takes the removed one's slot, so fleet order is not preserved
+    private void unlink(Vehicle v) {
+        int i = positions.remove(v.getId());
+        Vehicle last = fleet.remove(fleet.size() - 1);
+        if (last != v) {
+            fleet.set(i, last);
+            positions.put(last.getId(), i);
+        }
+    }
+
+    private void reindexPositions() {
+        positions.clear();
+        for (int i = 0, n = fleet.size(); i < n; i++) positions.put(fleet.get(i).getId(), i);
+    }
+
+    // Moves the listed vehicles to target as one operation: either every one of them moves or, on a
+    // missing or duplicate ID or one the target already holds, nothing changes. The target's index
+    // is filled in one pass and unwound on conflict; the source list is compacted once rather than
+    // scanned per vehicle. Neither manager may be used concurrently while this runs.
+    public int transferTo(FleetManager target, Collection<String> ids) throws InvalidOperationException {
+        long start = FleetMetrics.start();
+        try {
+            if (target == this) throw new InvalidOperationException("Cannot transfer a fleet to itself");
+            Set<Vehicle> moving = Collections.newSetFromMap(new IdentityHashMap<>(ids.size() * 2));
+            List<Vehicle> batch = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                Vehicle v = index.get(id);
+                if (v == null) throw new InvalidOperationException("Vehicle ID not found: " + id);
+                if (!moving.add(v)) throw new InvalidOperationException("Vehicle listed twice: " + id);
+                batch.add(v);
+            }
+            if (target.fleet.size() + batch.size() > target.maxVehicles)
+                throw new InvalidOperationException("Target fleet is limited to " + target.maxVehicles + " vehicles");
+            for (int i = 0; i < batch.size(); i++) {
+                Vehicle v = batch.get(i);
+                if (target.index.putIfAbsent(v.getId(), v) != null) {
+                    for (int j = 0; j < i; j++) target.index.remove(batch.get(j).getId());
+                    throw new InvalidOperationException("Vehicle ID already exists in target: " + v.getId());
+                }
+            }
+
+            fleet.removeIf(moving::contains);
+            reindexPositions();
+            if (target.fleet instanceof ArrayList<Vehicle> list) list.ensureCapacity(target.fleet.size() + batch.size());
+            for (Vehicle v : batch) {
+                index.remove(v.getId());
+                byType.get(v.getClass()).remove(v);
+                detach(v);
+                target.append(v);
+                target.byType.computeIfAbsent(v.getClass(), k -> new LinkedHashSet<>()).add(v);
+                target.attach(v);
             }
+            FleetMetrics.success(Op.TRANSFER, start);
+            return batch.size();
+        } catch (InvalidOperationException e) {
+            FleetMetrics.failure(Op.TRANSFER, e);
+            throw e;
         }
-        if (!removed) throw new InvalidOperationException("Vehicle ID not found: " + id);
+    }
+
+    public FleetQuery<Vehicle> query() {
+        return query(Vehicle.class);
+    }
+
+    public <T extends Vehicle> FleetQuery<T> query(Class<T> type) {
+        return new FleetQuery<>(type, byType, index);
     }
 
     public void startAllJourneys(double distance) {
-        for (Vehicle v : fleet) {
+        long batchStart = FleetMetrics.start();
+        JourneyBatchEvent event = JourneyBatchEvent.start();
+        int failures = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            Vehicle v = fleet.get(i);
+            long start = FleetMetrics.start();
             try {
-                v.move(distance);
-            } catch (InsufficientFuelException ife) {
-                System.out.println("InsufficientFuel for " + v.getId() + ": " + ife.getMessage());
-            } catch (InvalidOperationException ioe) {
-                System.out.println("InvalidOperation for " + v.getId() + ": " + ioe.getMessage());
-            } catch (Exception e) {
+                MoveResult result = v.tryMove(distance);
+                if (result == MoveResult.MOVED) {
+                    FleetMetrics.success(Op.MOVE, v.getClass(), start);
+                    continue;
+                }
+                failures++;
+                // Failures are counted without building an exception; the message is only formatted
+                // when logging is on
+                if (result == MoveResult.INSUFFICIENT_FUEL) {
+                    FleetMetrics.failure(Op.MOVE, v.getClass(), InsufficientFuelException.class);
+                    if (Vehicle.isLoggingEnabled()) {
+                        System.out.println("InsufficientFuel for " + v.getId() + ": " + v.moveFailureMessage(result));
+                    }
+                } else {
+                    FleetMetrics.failure(Op.MOVE, v.getClass(), InvalidOperationException.class);
+                    if (Vehicle.isLoggingEnabled()) {
+                        System.out.println("InvalidOperation for " + v.getId() + ": " + v.moveFailureMessage(result));
+                    }
+                }
+            } catch (RuntimeException e) {
+                failures++;
+                FleetMetrics.failure(Op.MOVE, v.getClass(), e);
                 System.out.println("Error moving " + v.getId() + ": " + e.getMessage());
             }
         }
+        FleetMetrics.success(Op.START_ALL_JOURNEYS, batchStart);
+        event.finish(distance, fleet.size(), failures);
     }
 
     public double getTotalFuelConsumption(double distance) {
@@ -69,233 +316,286 @@ public class FleetManager {
         return total;
     }
 
+    // Splits a fuel budget across the fleet according to the policy. The whole allocation is
+    // worked out before any vehicle is refueled; vehicles without a tank to fill (sail-powered
+    // ships, non-FuelConsumables) are skipped rather than failing the batch.
+    public RefuelSummary refuelAll(double budget, RefuelPolicy policy) throws InvalidOperationException {
+        if (budget < 0 || Double.isNaN(budget)) throw new InvalidOperationException("Fuel budget cannot be negative");
+        int n = fleet.size();
+        Vehicle[] tanks = new Vehicle[n];
+        double[] fuel = new double[n];
+        double[] efficiency = new double[n];
+        int k = 0;
+        for (Vehicle v : fleet) {
+            if (!(v instanceof FuelConsumable f)) continue;
+            double eff = v.calculateFuelEfficiency();
+            if (eff <= 0) continue;
+            tanks[k] = v;
+            fuel[k] = f.getFuelLevel();
+            efficiency[k] = eff;
+            k++;
+        }
+        if (k < n) {
+            tanks = Arrays.copyOf(tanks, k);
+            fuel = Arrays.copyOf(fuel, k);
+            efficiency = Arrays.copyOf(efficiency, k);
+        }
+
+        double[] amounts = new double[k];
+        // The policy gets a copy: fuel[] is also the level each tank is restored to on rollback
+        if (k > 0 && budget > 0) policy.allocate(tanks, fuel.clone(), efficiency, budget, amounts);
+        double total = 0.0;
+        for (int i = 0; i < k; i++) {
+            if (!(amounts[i] > 0)) amounts[i] = 0.0;
+            total += amounts[i];
+        }
+        if (total > budget) {
+            double scale = budget / total;
+            for (int i = 0; i < k; i++) amounts[i] *= scale;
+        }
+
+        // All or nothing: if any refuel fails, the tanks already filled are put back to the exact level
+        // they had (restoreFuel, not a subtraction, so no rounding residue is left)
+        int refueled = 0;
+        double allocated = 0.0;
+        int i = 0;
+        try {
+            for (; i < k; i++) {
+                if (amounts[i] <= 0) continue;
+                ((FuelConsumable) tanks[i]).refuel(amounts[i]);
+                refueled++;
+                allocated += amounts[i];
+            }
+        } catch (InvalidOperationException | RuntimeException e) {
+            InvalidOperationException failure = new InvalidOperationException(
+                    "Refuel failed for " + tanks[i].getId() + ": " + e.getMessage() + "; no vehicle was refueled");
+            for (int j = 0; j < i; j++) {
+                if (amounts[j] <= 0) continue;
+                try {
+                    ((FuelConsumable) tanks[j]).restoreFuel(fuel[j]);
+                } catch (InvalidOperationException | RuntimeException undo) {
+                    failure.addSuppressed(undo);
+                }
+            }
+            throw failure;
+        }
+        return new RefuelSummary(refueled, n - k, budget, allocated);
+    }
+
     public void maintainAll() {
+        long start = FleetMetrics.start();
+        MaintenanceEvent event = new MaintenanceEvent();
+        event.begin();
+        int checked = 0;
+        int serviced = 0;
         for (Vehicle v : fleet) {
             if (v instanceof Maintainable m) {
+                checked++;
                 if (m.needsMaintenance()) {
                     m.performMaintenance();
+                    serviced++;
                 }
             }
         }
+        FleetMetrics.success(Op.MAINTAIN_ALL, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.vehiclesChecked = checked;
+            event.vehiclesServiced = serviced;
+            event.commit();
+        }
+    }
+
+    // Services the count most worn vehicles whether or not they are due yet; returns how many were serviced
+    public int maintainMostWorn(int count) {
+        int serviced = 0;
+        for (Vehicle v : wearRanking().mostWorn(count)) {
+            if (v instanceof Maintainable m) {
+                m.performMaintenance();
+                serviced++;
+            }
+        }
+        return serviced;
     }
 
     public List<Vehicle> searchByType(Class<?> type) {
         List<Vehicle> results = new ArrayList<>();
-        for (Vehicle v : fleet) {
-            if (type.isInstance(v)) results.add(v);
-        }
+        searchByType(type, results);
         return results;
     }
 
+    // Buffer-reusing variants for hot loops: results are appended to the caller's list (clear it
+    // first to reuse it) and the number added is returned
+    public int searchByType(Class<?> type, List<Vehicle> into) {
+        int found = 0;
+        for (int i = 0, n = fleet.size(); i < n; i++) {
+            Vehicle v = fleet.get(i);
+            if (type.isInstance(v)) {
+                into.add(v);
+                found++;
+            }
+        }
+        return found;
+    }
+
     public void sortFleetByEfficiency() {
         Collections.sort(fleet);
+        reindexPositions();
+        bumpVersion();
     }
 
-    public String generateReport() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== Fleet Report ===\n");
-        sb.append("Total vehicles: ").append(fleet.size()).append("\n");
-
-        Map<String, Integer> counts = new HashMap<>();
-        for (Vehicle v : fleet) {
-            String t = v.getClass().getSimpleName();
-            counts.put(t, counts.getOrDefault(t, 0) + 1);
-        }
-        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
-            sb.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+    // Reused for repeated questions about the same distance while nothing in the fleet changes. The
+    // cache is access-ordered, so even lookups go under the lock dispatch() clears it with.
+    public JourneyEstimates estimateJourneys(double distance) {
+        synchronized (dispatchLock) {
+            JourneyEstimates e = estimates.get(distance);
+            if (e == null || e.getFleetVersion() != version) {
+                e = new JourneyEstimates(distance, version, fleet.toArray(new Vehicle[0]));
+                estimates.put(distance, e);
+            }
+            return e;
         }
+    }
 
-        double totalEff = 0.0;
-        int countEff = 0;
-        for (Vehicle v : fleet) {
-            double eff = v.calculateFuelEfficiency();
-            if (eff > 0) {
-                totalEff += eff;
-                countEff++;
-            }
+    public String generateReport() {
+        long start = FleetMetrics.start();
+        if (cachedReportVersion != version) {
+            cachedReport = collectStats().toReport();
+            cachedReportVersion = version;
         }
-        if (countEff > 0) sb.append("Average fuel efficiency: ").append(totalEff / countEff).append(" km/l\n");
+        String report = cachedReport;
+        FleetMetrics.success(Op.GENERATE_REPORT, start);
+        return report;
+    }
 
-        double totalMileage = 0.0;
-        for (Vehicle v : fleet) totalMileage += v.getCurrentMileage();
-        sb.append("Total mileage: ").append(totalMileage).append(" km\n");
+    // Streaming counterpart to generateReport() for exports too large to build as one String
+    public int writeReport(Writer out, ReportFormatter formatter) throws IOException {
+        return new ReportWriter(formatter).write(fleet.toArray(new Vehicle[0]), out);
+    }
 
-        sb.append("Vehicles needing maintenance: ").append(getVehiclesNeedingMaintenance().size()).append("\n");
+    public FleetStats collectStats() {
+        return collectStats(new FleetStats());
+    }
 
-        return sb.toString();
+    // Resets and refills the given stats instead of building a new one
+    public FleetStats collectStats(FleetStats into) {
+        into.reset();
+        for (int i = 0, n = fleet.size(); i < n; i++) into.add(fleet.get(i));
+        return into;
     }
 
     public List<Vehicle> getVehiclesNeedingMaintenance() {
         List<Vehicle> needs = new ArrayList<>();
-        for (Vehicle v : fleet) {
-            if (v instanceof Maintainable m) {
-                if (m.needsMaintenance()) needs.add(v);
+        getVehiclesNeedingMaintenance(needs);
+        return needs;
+    }
+
+    public int getVehiclesNeedingMaintenance(List<Vehicle> into) {
+        int found = 0;
+        for (int i = 0, n = fleet.size(); i < n; i++) {
+            if (fleet.get(i) instanceof Maintainable m && m.needsMaintenance()) {
+                into.add(fleet.get(i));
+                found++;
             }
         }
-        return needs;
+        return found;
     }
 
     public void saveToFile(String filename) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
+        long start = FleetMetrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
+        int rows = 0;
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(filename), 1 << 16))) {
+            StringBuilder row = new StringBuilder(128);
             for (Vehicle v : fleet) {
-                pw.println(serializeVehicle(v));
+                row.setLength(0);
+                VehicleCodecs.writeCsv(v, row);
+                pw.append(row).println();
+                rows++;
             }
+            if (pw.checkError()) throw new IOException("write failed");
+            FleetMetrics.success(Op.SAVE, start);
+            event.succeeded = true;
             System.out.println("Fleet saved to " + filename);
         } catch (IOException e) {
+            FleetMetrics.failure(Op.SAVE, e);
             System.out.println("Error saving fleet: " + e.getMessage());
         }
+        commitPersistence(event, "save", filename, rows);
     }
 
-    public void loadFromFile(String filename) {
+    // Returns false if the file could not be read, or held more vehicles than the fleet's limit (the
+    // first maxVehicles are kept); the error has already been printed
+    public boolean loadFromFile(String filename) {
+        long start = FleetMetrics.start();
+        PersistenceEvent event = new PersistenceEvent();
+        event.begin();
         try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            for (Vehicle old : fleet) detach(old);
             fleet.clear();
+            index.clear();
+            positions.clear();
+            byType.clear();
             String line;
+            int overLimit = 0;
             while ((line = br.readLine()) != null) {
                 Vehicle v = deserializeVehicle(line);
-                if (v != null) fleet.add(v);
+                if (v == null) continue;
+                if (fleet.size() >= maxVehicles) {
+                    overLimit++;
+                    continue;
+                }
+                if (index.putIfAbsent(v.getId(), v) != null) {
+                    System.out.println("Skipping duplicate vehicle ID in CSV: " + v.getId());
+                    continue;
+                }
+                append(v);
+                byType.computeIfAbsent(v.getClass(), k -> new LinkedHashSet<>()).add(v);
+                attach(v);
+            }
+            if (overLimit > 0) {
+                FleetMetrics.failure(Op.LOAD, InvalidOperationException.class);
+                System.out.println("Error loading fleet: " + filename + " exceeds the limit of " + maxVehicles + " vehicles; skipped " + overLimit);
+            } else {
+                FleetMetrics.success(Op.LOAD, start);
+                event.succeeded = true;
+                System.out.println("Fleet loaded from " + filename);
             }
-            System.out.println("Fleet loaded from " + filename);
         } catch (IOException e) {
+            FleetMetrics.failure(Op.LOAD, e);
             System.out.println("Error loading fleet: " + e.getMessage());
         } catch (InvalidOperationException e) {
+            FleetMetrics.failure(Op.LOAD, e);
             System.out.println("Error creating vehicle during load: " + e.getMessage());
         }
+        commitPersistence(event, "load", filename, fleet.size());
+        return event.succeeded;
+    }
+
+    private static void commitPersistence(PersistenceEvent event, String operation, String filename, int rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.file = filename;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    public static String serializeVehicle(Vehicle v) {
+        return VehicleCodecs.toCsv(v);
     }
 
-    private String serializeVehicle(Vehicle v) {
-        return switch (v) {
-            case Car c -> String.join(",",
-                    "Car",
-                    c.getId(),
-                    c.getModel(),
-                    String.valueOf(c.getMaxSpeed()),
-                    String.valueOf(c.getNumWheels()),
-                    String.valueOf(c.getFuelLevel()),
-                    String.valueOf(c.getPassengerCapacity()),
-                    String.valueOf(c.getCurrentPassengers()),
-                    String.valueOf(c.getCurrentMileage()));
-            case Truck t -> String.join(",",
-                    "Truck",
-                    t.getId(),
-                    t.getModel(),
-                    String.valueOf(t.getMaxSpeed()),
-                    String.valueOf(t.getNumWheels()),
-                    String.valueOf(t.getFuelLevel()),
-                    String.valueOf(t.getCargoCapacity()),
-                    String.valueOf(t.getCurrentCargo()),
-                    String.valueOf(t.getCurrentMileage()));
-            case Bus b -> String.join(",",
-                    "Bus",
-                    b.getId(),
-                    b.getModel(),
-                    String.valueOf(b.getMaxSpeed()),
-                    String.valueOf(b.getNumWheels()),
-                    String.valueOf(b.getFuelLevel()),
-                    String.valueOf(b.getPassengerCapacity()),
-                    String.valueOf(b.getCurrentPassengers()),
-                    String.valueOf(b.getCargoCapacity()),
-                    String.valueOf(b.getCurrentCargo()),
-                    String.valueOf(b.getCurrentMileage()));
-            case Airplane a -> String.join(",",
-                    "Airplane",
-                    a.getId(),
-                    a.getModel(),
-                    String.valueOf(a.getMaxSpeed()),
-                    String.valueOf(a.getFuelLevel()),
-                    String.valueOf(a.getMaxAltitude()),
-                    String.valueOf(a.getPassengerCapacity()),
-                    String.valueOf(a.getCurrentPassengers()),
-                    String.valueOf(a.getCargoCapacity()),
-                    String.valueOf(a.getCurrentCargo()),
-                    String.valueOf(a.getCurrentMileage()));
-            case CargoShip s -> String.join(",",
-                    "CargoShip",
-                    s.getId(),
-                    s.getModel(),
-                    String.valueOf(s.getMaxSpeed()),
-                    String.valueOf(s.getFuelLevel()),
-                    String.valueOf(s.hasSail()),
-                    String.valueOf(s.getCargoCapacity()),
-                    String.valueOf(s.getCurrentCargo()),
-                    String.valueOf(s.getCurrentMileage()));
-            default -> "";
-        };
-    }
-
-    private Vehicle deserializeVehicle(String line) throws InvalidOperationException {
+    public static Vehicle deserializeVehicle(String line) throws InvalidOperationException {
+        String[] p = line.split(",");
+        VehicleCodec<?> codec = VehicleCodecs.forName(p[0]);
+        if (codec == null) {
+            System.out.println("Unknown type in CSV: " + p[0]);
+            return null;
+        }
         try {
-            String[] p = line.split(",");
-            String type = p[0];
-            switch (type) {
-                case "Car": {
-                    String id = p[1];
-                    String model = p[2];
-                    double maxSpeed = Double.parseDouble(p[3]);
-                    int wheels = Integer.parseInt(p[4]);
-                    Car c = new Car(id, model, maxSpeed, wheels);
-                    double fuelLevel = Double.parseDouble(p[5]);
-                    if (fuelLevel > 0) c.refuel(fuelLevel);
-                    int passCap = Integer.parseInt(p[6]);
-                    int currPass = Integer.parseInt(p[7]);
-                    if (currPass > 0) c.boardPassengers(currPass);
-                    return c;
-                }
-                case "Truck": {
-                    String id = p[1];
-                    String model = p[2];
-                    double maxSpeed = Double.parseDouble(p[3]);
-                    int wheels = Integer.parseInt(p[4]);
-                    Truck t = new Truck(id, model, maxSpeed, wheels);
-                    double fuel = Double.parseDouble(p[5]);
-                    if (fuel > 0) t.refuel(fuel);
-                    double currCargo = Double.parseDouble(p[7]);
-                    if (currCargo > 0) t.loadCargo(currCargo);
-                    return t;
-                }
-                case "Bus": {
-                    String id = p[1];
-                    String model = p[2];
-                    double maxSpeed = Double.parseDouble(p[3]);
-                    int wheels = Integer.parseInt(p[4]);
-                    Bus b = new Bus(id, model, maxSpeed, wheels);
-                    double fuel = Double.parseDouble(p[5]);
-                    if (fuel > 0) b.refuel(fuel);
-                    int currPass = Integer.parseInt(p[7]);
-                    if (currPass > 0) b.boardPassengers(currPass);
-                    double currCargo = Double.parseDouble(p[9]);
-                    if (currCargo > 0) b.loadCargo(currCargo);
-                    return b;
-                }
-                case "Airplane": {
-                    String id = p[1];
-                    String model = p[2];
-                    double maxSpeed = Double.parseDouble(p[3]);
-                    double fuel = Double.parseDouble(p[4]);
-                    double maxAlt = Double.parseDouble(p[5]);
-                    Airplane a = new Airplane(id, model, maxSpeed, maxAlt);
-                    if (fuel > 0) a.refuel(fuel);
-                    int currPass = Integer.parseInt(p[7]);
-                    if (currPass > 0) a.boardPassengers(currPass);
-                    double currCargo = Double.parseDouble(p[9]);
-                    if (currCargo > 0) a.loadCargo(currCargo);
-                    return a;
-                }
-                case "CargoShip": {
-                    String id = p[1];
-                    String model = p[2];
-                    double maxSpeed = Double.parseDouble(p[3]);
-                    double fuel = Double.parseDouble(p[4]);
-                    boolean hasSail = Boolean.parseBoolean(p[5]);
-                    CargoShip s = new CargoShip(id, model, maxSpeed, hasSail);
-                    if (!hasSail && fuel > 0) s.refuel(fuel);
-                    double currCargo = Double.parseDouble(p[7]);
-                    if (currCargo > 0) s.loadCargo(currCargo);
-                    return s;
-                }
-                default:
-                    System.out.println("Unknown type in CSV: " + type);
-                    return null;
-            }
+            return codec.readCsv(p);
         } catch (Exception e) {
             System.out.println("Failed to parse CSV line: " + line + " -> " + e.getMessage());
             return null;
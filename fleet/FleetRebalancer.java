@@ -0,0 +1,121 @@
+package fleet;
+
+import exceptions.InvalidOperationException;
+import interfaces.CargoCarrier;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+import java.util.*;
+
+// Evens out the capacity of each vehicle type across the given fleets. A vehicle's capacity is its
+// cargo capacity if it carries cargo, else its passenger capacity (so within a type the units
+// agree); a type whose models report no capacity at all is balanced on vehicle count. A vehicle
+// only moves from a fleet above the type's average to one below it, and only when that brings the
+// two closer together, so when every vehicle has the same capacity each fleet ends up with the
+// floor or ceiling of the average count. Donors give up their most recently added vehicles first;
+// a vehicle whose ID the receiver already uses stays put. Each (donor, receiver) pair is one
+// transferTo call, and if any of them fails the pairs already moved are sent back; a pair that
+// can't be sent back is reported as suppressed on the original failure.
+public final class FleetRebalancer {
+    private FleetRebalancer() {
+    }
+
+    // Returns the number of vehicles moved
+    public static int rebalance(List<FleetManager> fleets) throws InvalidOperationException {
+        int n = fleets.size();
+        if (n < 2) return 0;
+        Map<Class<?>, List<List<Vehicle>>> byType = new LinkedHashMap<>();
+        for (int f = 0; f < n; f++) {
+            for (Vehicle v : fleets.get(f).getFleet()) {
+                byType.computeIfAbsent(v.getClass(), k -> {
+                    List<List<Vehicle>> perFleet = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) perFleet.add(new ArrayList<>());
+                    return perFleet;
+                }).get(f).add(v);
+            }
+        }
+
+        // donor * n + receiver -> IDs to move
+        Map<Integer, List<String>> plan = new LinkedHashMap<>();
+        List<Set<String>> incoming = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) incoming.add(new HashSet<>());
+        for (List<List<Vehicle>> perFleet : byType.values()) planType(fleets, perFleet, plan, incoming);
+
+        List<int[]> done = new ArrayList<>();
+        int moved = 0;
+        try {
+            for (Map.Entry<Integer, List<String>> e : plan.entrySet()) {
+                int donor = e.getKey() / n;
+                int receiver = e.getKey() % n;
+                moved += fleets.get(donor).transferTo(fleets.get(receiver), e.getValue());
+                done.add(new int[]{donor, receiver});
+            }
+        } catch (InvalidOperationException e) {
+            // Every pair gets its chance to go back; one that can't stays moved and its error rides
+            // along with the original
+            for (int i = done.size() - 1; i >= 0; i--) {
+                int donor = done.get(i)[0];
+                int receiver = done.get(i)[1];
+                try {
+                    fleets.get(receiver).transferTo(fleets.get(donor), plan.get(donor * n + receiver));
+                } catch (InvalidOperationException | RuntimeException rollback) {
+                    e.addSuppressed(rollback);
+                }
+            }
+            throw e;
+        }
+        return moved;
+    }
+
+    private static void planType(List<FleetManager> fleets, List<List<Vehicle>> perFleet,
+                                 Map<Integer, List<String>> plan, List<Set<String>> incoming) {
+        int n = perFleet.size();
+        boolean byCount = true;
+        for (List<Vehicle> vehicles : perFleet) {
+            for (Vehicle v : vehicles) byCount &= !(capacityOf(v) > 0);
+        }
+        // Each fleet's capacity minus the type's average: donors are above zero, receivers below
+        double[] excess = new double[n];
+        double total = 0.0;
+        for (int f = 0; f < n; f++) {
+            for (Vehicle v : perFleet.get(f)) excess[f] += byCount ? 1.0 : capacityOf(v);
+            total += excess[f];
+        }
+        Integer[] order = new Integer[n];
+        for (int f = 0; f < n; f++) {
+            excess[f] -= total / n;
+            order[f] = f;
+        }
+        // Neediest receivers are served first, from the richest donors
+        Arrays.sort(order, (a, b) -> Double.compare(excess[a], excess[b]));
+
+        // Candidates are taken from the end of each donor's list; taken ones are nulled out. Moving a
+        // vehicle of capacity c from excess a > 0 to excess -b < 0 lowers the spread (the sum of
+        // squared excesses) exactly when c < a + b, so every move makes progress.
+        for (int ri = 0; ri < n && excess[order[ri]] < 0; ri++) {
+            int r = order[ri];
+            FleetManager receiver = fleets.get(r);
+            for (int di = n - 1; di > ri && excess[r] < 0; di--) {
+                int d = order[di];
+                List<Vehicle> candidates = perFleet.get(d);
+                for (int i = candidates.size() - 1; i >= 0 && excess[d] > 0 && excess[r] < 0; i--) {
+                    Vehicle v = candidates.get(i);
+                    if (v == null) continue;
+                    double c = byCount ? 1.0 : capacityOf(v);
+                    if (!(c > 0) || c >= excess[d] - excess[r]) continue;
+                    if (receiver.getVehicle(v.getId()) != null || !incoming.get(r).add(v.getId())) continue;
+                    candidates.set(i, null);
+                    plan.computeIfAbsent(d * n + r, k -> new ArrayList<>()).add(v.getId());
+                    excess[d] -= c;
+                    excess[r] += c;
+                }
+            }
+        }
+    }
+
+    private static double capacityOf(Vehicle v) {
+        if (v instanceof CargoCarrier c) return c.getCargoCapacity();
+        if (v instanceof PassengerCarrier p) return p.getPassengerCapacity();
+        return 0.0;
+    }
+}
@@ -0,0 +1,111 @@
+package fleet;
+
+import interfaces.Maintainable;
+import vehicles.Vehicle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Mergeable partial aggregates behind generateReport(); shards and nodes each build one and the
+// caller merges them instead of gathering vehicles.
+public class FleetStats {
+    // Mutable per-type counters so add() doesn't box a fresh Integer once a count passes 127
+    private final Map<String, int[]> counts = new HashMap<>();
+    private int totalVehicles;
+    private double totalEfficiency;
+    private int efficiencyCount;
+    private double totalMileage;
+    private int maintenanceCount;
+
+    public void add(Vehicle v) {
+        totalVehicles++;
+        count(v.getClass().getSimpleName(), 1);
+        double eff = v.calculateFuelEfficiency();
+        if (eff > 0) {
+            totalEfficiency += eff;
+            efficiencyCount++;
+        }
+        totalMileage += v.getCurrentMileage();
+        if (v instanceof Maintainable m && m.needsMaintenance()) maintenanceCount++;
+    }
+
+    public void merge(FleetStats other) {
+        totalVehicles += other.totalVehicles;
+        for (Map.Entry<String, int[]> e : other.counts.entrySet()) count(e.getKey(), e.getValue()[0]);
+        totalEfficiency += other.totalEfficiency;
+        efficiencyCount += other.efficiencyCount;
+        totalMileage += other.totalMileage;
+        maintenanceCount += other.maintenanceCount;
+    }
+
+    // Used when rebuilding a partial aggregate received from elsewhere (e.g. over the wire)
+    public void addPartial(int vehicles, Map<String, Integer> typeCounts, double efficiencySum,
+                           int efficiencySamples, double mileage, int needingMaintenance) {
+        totalVehicles += vehicles;
+        for (Map.Entry<String, Integer> e : typeCounts.entrySet()) count(e.getKey(), e.getValue());
+        totalEfficiency += efficiencySum;
+        efficiencyCount += efficiencySamples;
+        totalMileage += mileage;
+        maintenanceCount += needingMaintenance;
+    }
+
+    // Zeroes the totals but keeps the per-type counters, so a reused instance stops allocating once
+    // it has seen every type
+    public void reset() {
+        counts.values().forEach(c -> c[0] = 0);
+        totalVehicles = 0;
+        totalEfficiency = 0;
+        efficiencyCount = 0;
+        totalMileage = 0;
+        maintenanceCount = 0;
+    }
+
+    private void count(String type, int n) {
+        int[] c = counts.get(type);
+        if (c == null) counts.put(type, c = new int[1]);
+        c[0] += n;
+    }
+
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Fleet Report ===\n");
+        sb.append("Total vehicles: ").append(totalVehicles).append("\n");
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (entry.getValue()[0] > 0) sb.append(entry.getKey()).append(": ").append(entry.getValue()[0]).append("\n");
+        }
+        if (efficiencyCount > 0) {
+            sb.append("Average fuel efficiency: ").append(totalEfficiency / efficiencyCount).append(" km/l\n");
+        }
+        sb.append("Total mileage: ").append(totalMileage).append(" km\n");
+        sb.append("Vehicles needing maintenance: ").append(maintenanceCount).append("\n");
+        return sb.toString();
+    }
+
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> out = new HashMap<>();
+        for (Map.Entry<String, int[]> e : counts.entrySet()) {
+            if (e.getValue()[0] > 0) out.put(e.getKey(), e.getValue()[0]);
+        }
+        return out;
+    }
+
+    public int getTotalVehicles() {
+        return totalVehicles;
+    }
+
+    public double getTotalEfficiency() {
+        return totalEfficiency;
+    }
+
+    public int getEfficiencyCount() {
+        return efficiencyCount;
+    }
+
+    public double getTotalMileage() {
+        return totalMileage;
+    }
+
+    public int getMaintenanceCount() {
+        return maintenanceCount;
+    }
+}
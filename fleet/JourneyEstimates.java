@@ -0,0 +1,89 @@
+package fleet;
+
+import interfaces.FuelConsumable;
+import vehicles.Vehicle;
+
+// Per-vehicle answers to "what would a trip of N km take" for the whole fleet, computed once.
+// FleetManager.estimateJourneys hands out the same table until the fleet's version moves on.
+public class JourneyEstimates {
+    private final double distance;
+    private final long fleetVersion;
+    private final Vehicle[] vehicles;
+    private final double[] hours;
+    private final double[] fuelNeeded;
+    private final boolean[] feasible;
+    private final double totalFuelNeeded;
+    private final int feasibleCount;
+
+    JourneyEstimates(double distance, long fleetVersion, Vehicle[] vehicles) {
+        this.distance = distance;
+        this.fleetVersion = fleetVersion;
+        this.vehicles = vehicles;
+        int n = vehicles.length;
+        hours = new double[n];
+        fuelNeeded = new double[n];
+        feasible = new boolean[n];
+        double total = 0.0;
+        int ok = 0;
+        for (int i = 0; i < n; i++) {
+            Vehicle v = vehicles[i];
+            hours[i] = v.estimateJourneyTime(distance);
+            double eff = v.calculateFuelEfficiency();
+            if (v instanceof FuelConsumable f && eff > 0) {
+                fuelNeeded[i] = distance / eff;
+                feasible[i] = fuelNeeded[i] <= f.getFuelLevel();
+            } else {
+                feasible[i] = true;  // sail, or no tank to run dry
+            }
+            total += fuelNeeded[i];
+            if (feasible[i]) ok++;
+        }
+        totalFuelNeeded = total;
+        feasibleCount = ok;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    long getFleetVersion() {
+        return fleetVersion;
+    }
+
+    public int size() {
+        return vehicles.length;
+    }
+
+    public Vehicle getVehicle(int i) {
+        return vehicles[i];
+    }
+
+    public double getHours(int i) {
+        return hours[i];
+    }
+
+    public double getFuelNeeded(int i) {
+        return fuelNeeded[i];
+    }
+
+    public boolean isFeasible(int i) {
+        return feasible[i];
+    }
+
+    public double getTotalFuelNeeded() {
+        return totalFuelNeeded;
+    }
+
+    public int getFeasibleCount() {
+        return feasibleCount;
+    }
+
+    // Quickest vehicle that has the fuel for the trip, or null
+    public Vehicle fastestFeasible() {
+        int best = -1;
+        for (int i = 0; i < vehicles.length; i++) {
+            if (feasible[i] && (best < 0 || hours[i] < hours[best])) best = i;
+        }
+        return best < 0 ? null : vehicles[best];
+    }
+}
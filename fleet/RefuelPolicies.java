@@ -0,0 +1,80 @@
+package fleet;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public final class RefuelPolicies {
+    private RefuelPolicies() {
+    }
+
+    // Same amount for every vehicle, scaled down evenly if the budget can't cover it
+    public static RefuelPolicy fixed(double amount) {
+        return (vehicles, fuel, efficiency, budget, amounts) -> {
+            double each = amount;
+            if (each * vehicles.length > budget) each = budget / vehicles.length;
+            Arrays.fill(amounts, 0, vehicles.length, Math.max(0.0, each));
+        };
+    }
+
+    // Tops every vehicle up to rangeKm of driving. When the budget is short, the lowest ranges are
+    // raised first so everyone ends at the same (lower) range.
+    public static RefuelPolicy topUpToRange(double rangeKm) {
+        return (vehicles, fuel, efficiency, budget, amounts) -> {
+            int n = vehicles.length;
+            double target = rangeKm;
+            if (totalNeed(fuel, efficiency, target, n) > budget) {
+                double lo = 0.0, hi = target;
+                for (int iter = 0; iter < 60; iter++) {
+                    double mid = (lo + hi) * 0.5;
+                    if (totalNeed(fuel, efficiency, mid, n) > budget) hi = mid;
+                    else lo = mid;
+                }
+                target = lo;
+            }
+            for (int i = 0; i < n; i++) amounts[i] = Math.max(0.0, target / efficiency[i] - fuel[i]);
+        };
+    }
+
+    // Everyone gets the same fraction of what they need to reach rangeKm
+    public static RefuelPolicy proportional(double rangeKm) {
+        return (vehicles, fuel, efficiency, budget, amounts) -> {
+            int n = vehicles.length;
+            double need = totalNeed(fuel, efficiency, rangeKm, n);
+            double scale = need > budget ? budget / need : 1.0;
+            for (int i = 0; i < n; i++) amounts[i] = Math.max(0.0, rangeKm / efficiency[i] - fuel[i]) * scale;
+        };
+    }
+
+    // Funds the upcoming journeys (vehicle ID -> km) in full, cheapest shortfall first so the
+    // budget covers as many trips as possible; vehicles without a journey get nothing
+    public static RefuelPolicy journeys(Map<String, Double> plannedKm) {
+        return (vehicles, fuel, efficiency, budget, amounts) -> {
+            int n = vehicles.length;
+            int[] order = new int[n];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                Double km = plannedKm.get(vehicles[i].getId());
+                amounts[i] = km == null ? 0.0 : Math.max(0.0, km / efficiency[i] - fuel[i]);
+                if (amounts[i] > 0) order[k++] = i;
+            }
+            double total = 0.0;
+            for (int j = 0; j < k; j++) total += amounts[order[j]];
+            if (total <= budget) return;
+
+            Integer[] byNeed = new Integer[k];
+            for (int j = 0; j < k; j++) byNeed[j] = order[j];
+            Arrays.sort(byNeed, (a, b) -> Double.compare(amounts[a], amounts[b]));
+            double left = budget;
+            for (int i : byNeed) {
+                if (amounts[i] <= left) left -= amounts[i];
+                else amounts[i] = 0.0;
+            }
+        };
+    }
+
+    private static double totalNeed(double[] fuel, double[] efficiency, double rangeKm, int n) {
+        double total = 0.0;
+        for (int i = 0; i < n; i++) total += Math.max(0.0, rangeKm / efficiency[i] - fuel[i]);
+        return total;
+    }
+}
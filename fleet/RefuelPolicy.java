@@ -0,0 +1,10 @@
+package fleet;
+
+import vehicles.Vehicle;
+
+// Decides how a fuel budget is split across the fleet's fuel-burning vehicles. fuel[i] is the
+// current level and efficiency[i] the current km/l of vehicles[i]; the policy writes the litres
+// for each into amounts[i]. FleetManager.refuelAll clamps the result to the budget.
+public interface RefuelPolicy {
+    void allocate(Vehicle[] vehicles, double[] fuel, double[] efficiency, double budget, double[] amounts);
+}
@@ -0,0 +1,41 @@
+package fleet;
+
+public class RefuelSummary {
+    private final int refueled;
+    private final int skipped;
+    private final double budget;
+    private final double allocated;
+
+    RefuelSummary(int refueled, int skipped, double budget, double allocated) {
+        this.refueled = refueled;
+        this.skipped = skipped;
+        this.budget = budget;
+        this.allocated = allocated;
+    }
+
+    public int getRefueled() {
+        return refueled;
+    }
+
+    // Vehicles without a tank to fill (no FuelConsumable, sail-powered ships)
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public double getBudget() {
+        return budget;
+    }
+
+    public double getAllocated() {
+        return allocated;
+    }
+
+    @Override
+    public String toString() {
+        String spent = Double.isInfinite(budget)
+                ? String.format("%.2f l", allocated)
+                : String.format("%.2f of %.2f l", allocated, budget);
+        return "Refueled " + refueled + " vehicles with " + spent
+                + " (" + skipped + " skipped)";
+    }
+}
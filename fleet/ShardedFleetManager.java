@@ -0,0 +1,225 @@
+package fleet;
+
+import codec.VehicleCodecs;
+import exceptions.*;
+import interfaces.Maintainable;
+import vehicles.Vehicle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Partitions vehicles across single-writer shards by ID hash. Every shard owns a FleetManager
+// (index + list) and one thread; only that thread touches the shard's vehicles. Per-vehicle calls are
+// routed to the owning shard, fleet-wide calls are scattered to all shards and the results gathered.
+// Vehicles handed back to callers are detached copies; the live ones never leave their shard.
+public class ShardedFleetManager implements AutoCloseable {
+    private final Shard[] shards;
+
+    public ShardedFleetManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShardedFleetManager(int shardCount) {
+        if (shardCount <= 0) throw new IllegalArgumentException("shardCount must be > 0");
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new Shard(i);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public void addVehicle(Vehicle v) throws InvalidOperationException {
+        Shard s = shardFor(v.getId());
+        await(s.submit(() -> {
+            s.manager.addVehicle(v);
+            return null;
+        }));
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException {
+        Shard s = shardFor(id);
+        await(s.submit(() -> {
+            s.manager.removeVehicle(id);
+            return null;
+        }));
+    }
+
+    // Returns a copy taken on the owning shard's thread (null if absent); changes to it do not reach
+    // the fleet, so change the vehicle through withVehicle or startJourney
+    public Vehicle getVehicle(String id) throws InvalidOperationException {
+        Shard s = shardFor(id);
+        return await(s.submit(() -> {
+            Vehicle v = s.manager.getVehicle(id);
+            return v == null ? null : snapshot(v);
+        }));
+    }
+
+    // Runs action against the vehicle on its owning shard's thread and returns its result
+    public <T> T withVehicle(String id, VehicleAction<T> action) throws InvalidOperationException {
+        Shard s = shardFor(id);
+        return await(s.submit(() -> {
+            Vehicle v = s.manager.getVehicle(id);
+            if (v == null) throw new InvalidOperationException("Vehicle ID not found: " + id);
+            return action.apply(v);
+        }));
+    }
+
+    public void startJourney(String id, double distance) throws InvalidOperationException, InsufficientFuelException {
+        Shard s = shardFor(id);
+        Future<Void> f = s.submit(() -> {
+            Vehicle v = s.manager.getVehicle(id);
+            if (v == null) throw new InvalidOperationException("Vehicle ID not found: " + id);
+            v.move(distance);
+            return null;
+        });
+        try {
+            f.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InsufficientFuelException ife) throw ife;
+            throw asInvalidOperation(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidOperationException("Interrupted while moving " + id);
+        }
+    }
+
+    public void startAllJourneys(double distance) {
+        scatter(m -> {
+            m.startAllJourneys(distance);
+            return null;
+        });
+    }
+
+    public void maintainAll() {
+        scatter(m -> {
+            m.maintainAll();
+            return null;
+        });
+    }
+
+    public List<Vehicle> searchByType(Class<?> type) {
+        List<Vehicle> results = new ArrayList<>();
+        for (List<Vehicle> part : scatter(m -> snapshots(m.searchByType(type)))) results.addAll(part);
+        return results;
+    }
+
+    public List<Vehicle> getVehiclesNeedingMaintenance() {
+        List<Vehicle> results = new ArrayList<>();
+        for (List<Vehicle> part : scatter(m -> snapshots(m.getVehiclesNeedingMaintenance()))) results.addAll(part);
+        return results;
+    }
+
+    public FleetStats collectStats() {
+        FleetStats total = new FleetStats();
+        for (FleetStats part : scatter(FleetManager::collectStats)) total.merge(part);
+        return total;
+    }
+
+    public String generateReport() {
+        return collectStats().toReport();
+    }
+
+    public int size() {
+        int n = 0;
+        for (Integer part : scatter(FleetManager::size)) n += part;
+        return n;
+    }
+
+    @Override
+    public void close() {
+        for (Shard s : shards) s.executor.shutdown();
+    }
+
+    private Shard shardFor(String id) {
+        return shards[Math.floorMod(id.hashCode(), shards.length)];
+    }
+
+    // Round-trips the vehicle through its binary codec; position, heading and a scheduled service are
+    // not part of the record, so they are copied across separately
+    private static Vehicle snapshot(Vehicle v) throws IOException, InvalidOperationException, OverloadException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        VehicleCodecs.write(v, new DataOutputStream(bytes));
+        Vehicle copy = VehicleCodecs.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        copy.setPosition(v.getX(), v.getY());
+        copy.setHeading(v.getHeading());
+        if (v instanceof Maintainable m && m.isMaintenanceScheduled()) ((Maintainable) copy).scheduleMaintenance();
+        return copy;
+    }
+
+    private static List<Vehicle> snapshots(List<Vehicle> vehicles) throws IOException, InvalidOperationException, OverloadException {
+        List<Vehicle> copies = new ArrayList<>(vehicles.size());
+        for (Vehicle v : vehicles) copies.add(snapshot(v));
+        return copies;
+    }
+
+    private <T> List<T> scatter(ShardTask<T> task) {
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (Shard s : shards) futures.add(s.submit(() -> task.run(s.manager)));
+        List<T> results = new ArrayList<>(shards.length);
+        for (Future<T> f : futures) {
+            try {
+                results.add(f.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Shard task failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shards", e);
+            }
+        }
+        return results;
+    }
+
+    private static <T> T await(Future<T> f) throws InvalidOperationException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw asInvalidOperation(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidOperationException("Interrupted while waiting for shard");
+        }
+    }
+
+    private static InvalidOperationException asInvalidOperation(Throwable t) {
+        if (t instanceof InvalidOperationException ioe) return ioe;
+        if (t instanceof RuntimeException re) throw re;
+        if (t instanceof Error err) throw err;
+        return new InvalidOperationException(t.getClass().getSimpleName() + ": " + t.getMessage());
+    }
+
+    public interface VehicleAction<T> {
+        T apply(Vehicle v) throws Exception;
+    }
+
+    private interface ShardTask<T> {
+        T run(FleetManager manager) throws Exception;
+    }
+
+    private static final class Shard {
+        final FleetManager manager = new FleetManager();
+        final ExecutorService executor;
+
+        Shard(int n) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "fleet-shard-" + n);
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        <T> Future<T> submit(Callable<T> c) {
+            return executor.submit(c);
+        }
+    }
+}
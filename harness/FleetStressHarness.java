@@ -0,0 +1,511 @@
+package harness;
+
+import cluster.ClusterFleetManager;
+import codec.VehicleCodecs;
+import exceptions.InvalidOperationException;
+import fleet.FleetManager;
+import fleet.FleetStats;
+import fleet.RefuelPolicies;
+import fleet.ShardedFleetManager;
+import maintenance.WearRanking;
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Randomized operation sequences run against FleetManager (sequential), ShardedFleetManager
+// (one thread per disjoint ID range) and a ClusterFleetManager of four nodes on localhost, and
+// checked after every step against ModelVehicle. Checks:
+// the outcome of every operation, cargo/passengers within capacity, fuel never negative, unique
+// IDs, stats totals, the wear ranking, and save/load round trips. Reports ops/s so it doubles as a soak run.
+//
+// Usage: java harness.FleetStressHarness [ops] [threads] [seed]
+// Exits with status 1 on the first run with mismatches; rerun with the printed seed to reproduce.
+public class FleetStressHarness {
+    private static final String[] TYPES = {"Car", "Truck", "Bus", "Airplane", "CargoShip"};
+    private static final int MAX_REPORTED = 10;
+
+    private final List<String> failures = new ArrayList<>();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        long ops = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        FleetStressHarness h = new FleetStressHarness();
+        PrintStream console = System.out;
+        System.out.println("seed " + seed);
+        Vehicle.setLoggingEnabled(false);
+        // Maintenance and error paths print unconditionally; keep them off the report
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long clusterOps = Math.min(ops, 20_000);
+        long seqNanos, conNanos, clusterNanos;
+        try {
+            long t0 = System.nanoTime();
+            h.sequential(ops, seed);
+            seqNanos = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            h.concurrent(threads, ops / threads, seed);
+            conNanos = System.nanoTime() - t0;
+            t0 = System.nanoTime();
+            h.cluster(clusterOps, seed);
+            clusterNanos = System.nanoTime() - t0;
+        } finally {
+            System.setOut(console);
+        }
+
+        System.out.printf("sequential: %d ops in %.2fs (%.0f ops/s)%n", ops, seqNanos / 1e9, ops / (seqNanos / 1e9));
+        long conOps = ops / threads * threads;
+        System.out.printf("concurrent: %d ops on %d threads in %.2fs (%.0f ops/s)%n",
+                conOps, threads, conNanos / 1e9, conOps / (conNanos / 1e9));
+        System.out.printf("cluster: %d ops on 4 nodes in %.2fs (%.0f ops/s)%n",
+                clusterOps, clusterNanos / 1e9, clusterOps / (clusterNanos / 1e9));
+        if (h.failureCount.get() > 0) {
+            System.out.println(h.failureCount.get() + " mismatches, first ones:");
+            for (String f : h.failures) System.out.println("  " + f);
+            System.exit(1);
+        }
+        System.out.println("all invariants held");
+    }
+
+    // ---- sequential ----
+
+    private void sequential(long ops, long seed) throws Exception {
+        Random rnd = new Random(seed);
+        FleetManager fm = new FleetManager();
+        fm.wearRanking();
+        Map<String, ModelVehicle> model = new LinkedHashMap<>();
+        IdPool ids = new IdPool();
+        int idSpace = 2000;
+        File tmp = File.createTempFile("fleet-harness", ".csv");
+        tmp.deleteOnExit();
+
+        for (long i = 0; i < ops; i++) {
+            int r = rnd.nextInt(1000);
+            if (r < 80) {
+                String id = "V" + rnd.nextInt(idSpace);
+                ModelVehicle m = newModel(rnd, id);
+                Vehicle v = create(m, rnd);
+                Class<? extends Exception> expected = model.containsKey(id) ? InvalidOperationException.class : null;
+                Class<? extends Exception> actual = outcome(() -> fm.addVehicle(v));
+                if (expect(i, "add " + id, expected, actual) && expected == null) {
+                    model.put(id, m);
+                    ids.add(id);
+                }
+            } else if (r < 120) {
+                String id = "V" + rnd.nextInt(idSpace);
+                Class<? extends Exception> expected = model.containsKey(id) ? null : InvalidOperationException.class;
+                Class<? extends Exception> actual = outcome(() -> fm.removeVehicle(id));
+                if (expect(i, "remove " + id, expected, actual) && expected == null) {
+                    model.remove(id);
+                    ids.remove(id);
+                }
+            } else if (r < 990) {
+                if (ids.isEmpty()) continue;
+                String id = ids.pick(rnd);
+                mutate(i, rnd, model.get(id), fm.getVehicle(id));
+            } else if (r < 993) {
+                for (ModelVehicle m : model.values()) {
+                    if (m.needsMaintenance()) m.service();
+                }
+                outcome(fm::maintainAll);
+                compareAll(i, "maintainAll", model, fm);
+            } else if (r < 995) {
+                double d = rnd.nextDouble() * 50;
+                for (ModelVehicle m : model.values()) m.move(d);
+                outcome(() -> fm.startAllJourneys(d));
+                compareAll(i, "startAllJourneys " + d, model, fm);
+            } else if (r < 997) {
+                double a = 1 + rnd.nextDouble() * 20;
+                for (ModelVehicle m : model.values()) {
+                    if (m.fuel && m.efficiency() > 0) m.refuel(a);
+                }
+                outcome(() -> fm.refuelAll(Double.POSITIVE_INFINITY, RefuelPolicies.fixed(a)));
+                compareAll(i, "refuelAll " + a, model, fm);
+            } else {
+                compareStats(i, model, fm.collectStats());
+            }
+
+            if (i % 100_000 == 99_999) {
+                FleetManager loaded = roundTrip(i, fm, model, tmp);
+                // Keep going on the reloaded fleet so loaded objects get exercised too
+                if (loaded != null) {
+                    for (ModelVehicle m : model.values()) m.maintenanceFlag = false;
+                    replaceContents(fm, loaded);
+                }
+            }
+        }
+        compareAll(ops, "final", model, fm);
+    }
+
+    // FleetManager has no swap; move the reloaded vehicles into the live manager
+    private static void replaceContents(FleetManager into, FleetManager from) throws InvalidOperationException {
+        for (Vehicle v : new ArrayList<>(into.getFleet())) into.removeVehicle(v.getId());
+        into.addVehicles(from.getFleet());
+    }
+
+    private FleetManager roundTrip(long step, FleetManager fm, Map<String, ModelVehicle> model, File tmp) {
+        fm.saveToFile(tmp.getPath());
+        FleetManager copy = new FleetManager();
+        copy.loadFromFile(tmp.getPath());
+        if (copy.size() != model.size()) {
+            fail(step, "round trip size " + copy.size() + " != " + model.size());
+            return null;
+        }
+        for (ModelVehicle m : model.values()) {
+            Vehicle v = copy.getVehicle(m.id);
+            if (v == null) {
+                fail(step, "round trip lost " + m.id);
+                return null;
+            }
+            boolean flag = m.maintenanceFlag;
+            m.maintenanceFlag = false;  // not persisted
+            String d = m.diff(v);
+            m.maintenanceFlag = flag;
+            if (d != null) {
+                fail(step, "round trip " + m.id + ": " + d);
+                return null;
+            }
+        }
+        return copy;
+    }
+
+    // ---- concurrent ----
+
+    private void concurrent(int threads, long opsPerThread, long seed) throws Exception {
+        try (ShardedFleetManager sharded = new ShardedFleetManager(Math.max(2, threads))) {
+            List<Map<String, ModelVehicle>> models = new ArrayList<>();
+            List<Thread> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Map<String, ModelVehicle> model = new HashMap<>();
+                models.add(model);
+                long threadSeed = seed * 31 + t;
+                String prefix = "T" + t + "-";
+                Thread w = new Thread(() -> worker(sharded, model, prefix, opsPerThread, new Random(threadSeed)), "harness-" + t);
+                workers.add(w);
+            }
+            for (Thread w : workers) w.start();
+            for (Thread w : workers) w.join();
+
+            int expectedSize = 0;
+            FleetStats expectedStats = new FleetStats();
+            Map<String, Integer> counts = new HashMap<>();
+            double mileage = 0;
+            int maintenance = 0;
+            for (Map<String, ModelVehicle> model : models) {
+                expectedSize += model.size();
+                for (ModelVehicle m : model.values()) {
+                    String d = m.diff(sharded.getVehicle(m.id));
+                    if (d != null) fail(-1, "sharded final " + m.id + ": " + d);
+                    counts.merge(m.type, 1, Integer::sum);
+                    mileage += m.mileage;
+                    if (m.needsMaintenance()) maintenance++;
+                }
+            }
+            if (sharded.size() != expectedSize) fail(-1, "sharded size " + sharded.size() + " != " + expectedSize);
+            FleetStats actual = sharded.collectStats();
+            if (!actual.getCounts().equals(counts)) fail(-1, "sharded type counts " + actual.getCounts() + " != " + counts);
+            if (Math.abs(actual.getTotalMileage() - mileage) > 1e-6 * Math.max(1, mileage))
+                fail(-1, "sharded mileage " + actual.getTotalMileage() + " != " + mileage);
+            if (actual.getMaintenanceCount() != maintenance)
+                fail(-1, "sharded maintenance " + actual.getMaintenanceCount() + " != " + maintenance);
+        }
+    }
+
+    // ---- cluster ----
+
+    // Every operation is a round trip to a node, so this runs far fewer ops than the other phases
+    private void cluster(long ops, long seed) throws Exception {
+        Random rnd = new Random(seed ^ 0x5DEECE66DL);
+        Map<String, ModelVehicle> model = new LinkedHashMap<>();
+        IdPool ids = new IdPool();
+        try (ClusterFleetManager cluster = ClusterFleetManager.startLocal("V3", "V5", "V7")) {
+            for (long i = 0; i < ops; i++) {
+                int r = rnd.nextInt(100);
+                if (r < 30) {
+                    String id = "V" + rnd.nextInt(1000);
+                    ModelVehicle m = newModel(rnd, id);
+                    Vehicle v = create(m, rnd);
+                    Class<? extends Exception> expected = model.containsKey(id) ? InvalidOperationException.class : null;
+                    if (expect(i, "cluster add " + id, expected, outcome(() -> cluster.addVehicle(v))) && expected == null) {
+                        model.put(id, m);
+                        ids.add(id);
+                    }
+                } else if (r < 45) {
+                    String id = "V" + rnd.nextInt(1000);
+                    Class<? extends Exception> expected = model.containsKey(id) ? null : InvalidOperationException.class;
+                    if (expect(i, "cluster remove " + id, expected, outcome(() -> cluster.removeVehicle(id))) && expected == null) {
+                        model.remove(id);
+                        ids.remove(id);
+                    }
+                } else if (r < 90) {
+                    if (ids.isEmpty()) continue;
+                    String id = ids.pick(rnd);
+                    double d = rnd.nextDouble() * 100;
+                    expect(i, "cluster move " + id, model.get(id).move(d), outcome(() -> cluster.startJourney(id, d)));
+                } else if (r < 93) {
+                    double d = rnd.nextDouble() * 50;
+                    for (ModelVehicle m : model.values()) m.move(d);
+                    expect(i, "cluster startAllJourneys", null, outcome(() -> cluster.startAllJourneys(d)));
+                } else if (r < 95) {
+                    for (ModelVehicle m : model.values()) {
+                        if (m.needsMaintenance()) m.service();
+                    }
+                    expect(i, "cluster maintainAll", null, outcome(cluster::maintainAll));
+                } else if (r < 98) {
+                    compareStats(i, model, cluster.collectStats());
+                } else if (cluster.size() != model.size()) {
+                    fail(i, "cluster size " + cluster.size() + " != " + model.size());
+                }
+            }
+            compareStats(ops, model, cluster.collectStats());
+        }
+    }
+
+    private void worker(ShardedFleetManager sharded, Map<String, ModelVehicle> model, String prefix, long ops, Random rnd) {
+        IdPool ids = new IdPool();
+        try {
+            for (long i = 0; i < ops; i++) {
+                int r = rnd.nextInt(100);
+                if (r < 10) {
+                    String id = prefix + rnd.nextInt(500);
+                    ModelVehicle m = newModel(rnd, id);
+                    Vehicle v = create(m, rnd);
+                    Class<? extends Exception> expected = model.containsKey(id) ? InvalidOperationException.class : null;
+                    if (expect(i, "sharded add " + id, expected, outcome(() -> sharded.addVehicle(v))) && expected == null) {
+                        model.put(id, m);
+                        ids.add(id);
+                    }
+                } else if (r < 15) {
+                    String id = prefix + rnd.nextInt(500);
+                    Class<? extends Exception> expected = model.containsKey(id) ? null : InvalidOperationException.class;
+                    if (expect(i, "sharded remove " + id, expected, outcome(() -> sharded.removeVehicle(id))) && expected == null) {
+                        model.remove(id);
+                        ids.remove(id);
+                    }
+                } else if (r < 55) {
+                    if (ids.isEmpty()) continue;
+                    String id = ids.pick(rnd);
+                    ModelVehicle m = model.get(id);
+                    double d = rnd.nextDouble() * 100;
+                    expect(i, "sharded move " + id, m.move(d), outcome(() -> sharded.startJourney(id, d)));
+                } else if (r < 97) {
+                    // vehicles belong to their shard's thread, so the change runs there
+                    if (ids.isEmpty()) continue;
+                    String id = ids.pick(rnd);
+                    ModelVehicle m = model.get(id);
+                    long step = i;
+                    expect(i, "sharded update " + id, null, outcome(() -> sharded.withVehicle(id, v -> {
+                        mutate(step, rnd, m, v);
+                        return null;
+                    })));
+                } else if (r < 99) {
+                    sharded.size();
+                } else {
+                    sharded.collectStats();
+                }
+            }
+        } catch (Exception e) {
+            fail(-1, prefix + " worker crashed: " + e);
+        }
+    }
+
+    // ---- shared ----
+
+    private void mutate(long step, Random rnd, ModelVehicle m, Vehicle v) {
+        if (v == null) {
+            fail(step, "vehicle " + m.id + " missing from manager");
+            return;
+        }
+        int op = rnd.nextInt(8);
+        String desc;
+        Class<? extends Exception> expected;
+        Class<? extends Exception> actual;
+        switch (op) {
+            case 0, 1 -> {
+                double d = rnd.nextInt(20) == 0 ? -1 : rnd.nextDouble() * 300;
+                desc = "move " + d;
+                expected = m.move(d);
+                actual = outcome(() -> v.move(d));
+            }
+            case 2 -> {
+                double a = rnd.nextInt(20) == 0 ? 0 : rnd.nextDouble() * 100;
+                desc = "refuel " + a;
+                expected = m.refuel(a);
+                actual = outcome(() -> ((FuelConsumable) v).refuel(a));
+            }
+            case 3 -> {
+                if (!m.cargo) return;
+                double w = rnd.nextDouble() * m.spec.getCargoCapacity() * 0.6;
+                desc = "load " + w;
+                expected = m.load(w);
+                actual = outcome(() -> ((CargoCarrier) v).loadCargo(w));
+            }
+            case 4 -> {
+                if (!m.cargo) return;
+                double w = rnd.nextDouble() * m.spec.getCargoCapacity() * 0.5;
+                desc = "unload " + w;
+                expected = m.unload(w);
+                actual = outcome(() -> ((CargoCarrier) v).unloadCargo(w));
+            }
+            case 5 -> {
+                if (!m.passengers) return;
+                int n = rnd.nextInt(m.spec.getPassengerCapacity() / 2 + 2);
+                desc = "board " + n;
+                expected = m.board(n);
+                actual = outcome(() -> ((PassengerCarrier) v).boardPassengers(n));
+            }
+            case 6 -> {
+                if (!m.passengers) return;
+                int n = rnd.nextInt(m.spec.getPassengerCapacity() / 2 + 2);
+                desc = "disembark " + n;
+                expected = m.disembark(n);
+                actual = outcome(() -> ((PassengerCarrier) v).disembarkPassengers(n));
+            }
+            default -> {
+                desc = "scheduleMaintenance";
+                m.maintenanceFlag = true;
+                expected = null;
+                actual = outcome(((Maintainable) v)::scheduleMaintenance);
+            }
+        }
+        if (expect(step, desc + " on " + m.id, expected, actual)) {
+            String d = m.diff(v);
+            if (d != null) fail(step, desc + " on " + m.id + ": " + d);
+        }
+    }
+
+    private void compareAll(long step, String what, Map<String, ModelVehicle> model, FleetManager fm) {
+        List<Vehicle> fleet = fm.getFleet();
+        if (fleet.size() != model.size()) {
+            fail(step, what + ": fleet size " + fleet.size() + " != " + model.size());
+            return;
+        }
+        Set<String> seen = new HashSet<>();
+        for (Vehicle v : fleet) {
+            if (!seen.add(v.getId())) fail(step, what + ": duplicate id " + v.getId());
+            ModelVehicle m = model.get(v.getId());
+            if (m == null) {
+                fail(step, what + ": unexpected vehicle " + v.getId());
+                continue;
+            }
+            String d = m.diff(v);
+            if (d != null) fail(step, what + " " + v.getId() + ": " + d);
+        }
+        WearRanking wear = fm.wearRanking();
+        if (wear.size() != fleet.size()) fail(step, what + ": wear ranking size " + wear.size() + " != " + fleet.size());
+        Vehicle worst = wear.mostWorn();
+        double worstScore = worst == null ? 0.0 : worst.getWearScore();
+        for (Vehicle v : fleet) {
+            if (wear.scoreOf(v) != v.getWearScore())
+                fail(step, what + " " + v.getId() + ": stale wear score " + wear.scoreOf(v) + " != " + v.getWearScore());
+            if (v.getWearScore() >= worstScore + WearRanking.precisionAt(worstScore) && worstScore < WearRanking.MAX_SCORE)
+                fail(step, what + " " + v.getId() + ": wear " + v.getWearScore() + " above most worn " + worstScore);
+        }
+    }
+
+    private void compareStats(long step, Map<String, ModelVehicle> model, FleetStats stats) {
+        Map<String, Integer> counts = new HashMap<>();
+        double mileage = 0;
+        int maintenance = 0;
+        for (ModelVehicle m : model.values()) {
+            counts.merge(m.type, 1, Integer::sum);
+            mileage += m.mileage;
+            if (m.needsMaintenance()) maintenance++;
+        }
+        if (stats.getTotalVehicles() != model.size()) fail(step, "stats total " + stats.getTotalVehicles() + " != " + model.size());
+        if (!stats.getCounts().equals(counts)) fail(step, "stats counts " + stats.getCounts() + " != " + counts);
+        if (Math.abs(stats.getTotalMileage() - mileage) > 1e-6 * Math.max(1, mileage))
+            fail(step, "stats mileage " + stats.getTotalMileage() + " != " + mileage);
+        if (stats.getMaintenanceCount() != maintenance)
+            fail(step, "stats maintenance " + stats.getMaintenanceCount() + " != " + maintenance);
+    }
+
+    private static ModelVehicle newModel(Random rnd, String id) {
+        String type = TYPES[rnd.nextInt(TYPES.length)];
+        boolean sail = type.equals("CargoShip") && rnd.nextBoolean();
+        return new ModelVehicle(type, id, "M" + rnd.nextInt(3), sail);
+    }
+
+    private static Vehicle create(ModelVehicle m, Random rnd) throws InvalidOperationException {
+        String extra = switch (m.type) {
+            case "Airplane" -> String.valueOf(8000 + rnd.nextInt(4000));
+            case "CargoShip" -> String.valueOf(m.sail);
+            default -> String.valueOf(4 + 2 * rnd.nextInt(3));
+        };
+        return VehicleCodecs.forName(m.type).create(m.id, m.model, 60 + rnd.nextInt(800), extra);
+    }
+
+    private interface Op {
+        void run() throws Exception;
+    }
+
+    private static Class<? extends Exception> outcome(Op op) {
+        try {
+            op.run();
+            return null;
+        } catch (Exception e) {
+            return e.getClass();
+        }
+    }
+
+    private boolean expect(long step, String what, Class<? extends Exception> expected, Class<? extends Exception> actual) {
+        if (expected == actual) return true;
+        fail(step, what + ": expected " + name(expected) + " but got " + name(actual));
+        return false;
+    }
+
+    private static String name(Class<?> c) {
+        return c == null ? "success" : c.getSimpleName();
+    }
+
+    private void fail(long step, String message) {
+        failureCount.incrementAndGet();
+        synchronized (failures) {
+            if (failures.size() < MAX_REPORTED) failures.add("step " + step + ": " + message);
+        }
+    }
+
+    // Random pick and O(1) removal over the live IDs
+    private static final class IdPool {
+        private final List<String> list = new ArrayList<>();
+        private final Map<String, Integer> pos = new HashMap<>();
+
+        void add(String id) {
+            pos.put(id, list.size());
+            list.add(id);
+        }
+
+        void remove(String id) {
+            int i = pos.remove(id);
+            String last = list.remove(list.size() - 1);
+            if (i < list.size()) {
+                list.set(i, last);
+                pos.put(last, i);
+            }
+        }
+
+        boolean isEmpty() {
+            return list.isEmpty();
+        }
+
+        String pick(Random rnd) {
+            return list.get(rnd.nextInt(list.size()));
+        }
+    }
+}
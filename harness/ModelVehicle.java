@@ -0,0 +1,133 @@
+package harness;
+
+import exceptions.InsufficientFuelException;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+import vehicles.VehicleSpec;
+import vehicles.VehicleSpecTable;
+
+// Reference model of one vehicle: the documented rules written out as plainly as possible, with
+// no caching, events or shared code with the production classes beyond the spec table. Each
+// operation returns the exception class the real vehicle is expected to throw, or null.
+final class ModelVehicle {
+    final String type;
+    final String id;
+    final String model;
+    final VehicleSpec spec;
+    final boolean fuel;
+    final boolean sail;
+    final boolean cargo;
+    final boolean passengers;
+
+    double fuelLevel;
+    double currentCargo;
+    int currentPassengers;
+    double mileage;
+    double mileageAtService;
+    boolean maintenanceFlag;
+
+    ModelVehicle(String type, String id, String model, boolean sail) {
+        this.type = type;
+        this.id = id;
+        this.model = model;
+        this.spec = VehicleSpecTable.lookup(type, model);
+        this.sail = sail;
+        this.fuel = !sail;
+        this.cargo = !type.equals("Car");
+        this.passengers = type.equals("Car") || type.equals("Bus") || type.equals("Airplane");
+    }
+
+    double efficiency() {
+        if (sail) return 0.0;
+        return spec.efficiencyAt(currentCargo);
+    }
+
+    Class<? extends Exception> move(double distance) {
+        if (distance < 0) return InvalidOperationException.class;
+        if (sail) {
+            mileage += distance;
+            return null;
+        }
+        double eff = efficiency();
+        if (eff <= 0) return InvalidOperationException.class;
+        double needed = distance / eff;
+        if (needed > fuelLevel) return InsufficientFuelException.class;
+        fuelLevel -= needed;
+        mileage += distance;
+        return null;
+    }
+
+    Class<? extends Exception> refuel(double amount) {
+        if (!fuel || amount <= 0) return InvalidOperationException.class;
+        fuelLevel += amount;
+        return null;
+    }
+
+    Class<? extends Exception> load(double weight) {
+        if (weight <= 0) return null;
+        if (currentCargo + weight > spec.getCargoCapacity()) return OverloadException.class;
+        currentCargo += weight;
+        return null;
+    }
+
+    Class<? extends Exception> unload(double weight) {
+        if (weight < 0 || weight > currentCargo) return InvalidOperationException.class;
+        currentCargo -= weight;
+        return null;
+    }
+
+    Class<? extends Exception> board(int count) {
+        if (count <= 0) return null;
+        if (currentPassengers + count > spec.getPassengerCapacity()) return OverloadException.class;
+        currentPassengers += count;
+        return null;
+    }
+
+    Class<? extends Exception> disembark(int count) {
+        if (count < 0 || count > currentPassengers) return InvalidOperationException.class;
+        currentPassengers -= count;
+        return null;
+    }
+
+    boolean needsMaintenance() {
+        return maintenanceFlag || mileage - mileageAtService > spec.getServiceInterval();
+    }
+
+    void service() {
+        maintenanceFlag = false;
+        mileageAtService = mileage;
+    }
+
+    // Describes the first difference from the real vehicle, or null if they agree
+    String diff(Vehicle v) {
+        if (!v.getId().equals(id)) return "id " + v.getId() + " != " + id;
+        if (!v.getClass().getSimpleName().equals(type)) return "type " + v.getClass().getSimpleName() + " != " + type;
+        if (!close(v.getCurrentMileage(), mileage)) return "mileage " + v.getCurrentMileage() + " != " + mileage;
+        if (!close(v.getMileageAtService(), mileageAtService))
+            return "mileage at service " + v.getMileageAtService() + " != " + mileageAtService;
+        if (v instanceof FuelConsumable f) {
+            if (f.getFuelLevel() < 0) return "negative fuel " + f.getFuelLevel();
+            if (!close(f.getFuelLevel(), fuelLevel)) return "fuel " + f.getFuelLevel() + " != " + fuelLevel;
+        }
+        if (v instanceof CargoCarrier c) {
+            if (c.getCurrentCargo() > c.getCargoCapacity()) return "cargo over capacity " + c.getCurrentCargo();
+            if (!close(c.getCurrentCargo(), currentCargo)) return "cargo " + c.getCurrentCargo() + " != " + currentCargo;
+        }
+        if (v instanceof PassengerCarrier p) {
+            if (p.getCurrentPassengers() > p.getPassengerCapacity()) return "passengers over capacity " + p.getCurrentPassengers();
+            if (p.getCurrentPassengers() != currentPassengers) return "passengers " + p.getCurrentPassengers() + " != " + currentPassengers;
+        }
+        if (v instanceof Maintainable m && m.needsMaintenance() != needsMaintenance())
+            return "needsMaintenance " + m.needsMaintenance() + " != " + needsMaintenance();
+        return null;
+    }
+
+    private static boolean close(double a, double b) {
+        return Math.abs(a - b) <= 1e-9 * Math.max(1.0, Math.abs(b));
+    }
+}
@@ -0,0 +1,107 @@
+package history;
+
+import java.util.Arrays;
+
+// Append-only bit buffer, packed LSB first into longs
+final class BitStream {
+    private long[] words;
+    private int bits;
+
+    BitStream(int initialWords) {
+        words = new long[Math.max(1, initialWords)];
+    }
+
+    BitStream(long[] words, int bits) {
+        this.words = words;
+        this.bits = bits;
+    }
+
+    int bits() {
+        return bits;
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    void write(long value, int n) {
+        int idx = bits >>> 6;
+        int off = bits & 63;
+        if (idx + 1 >= words.length) words = Arrays.copyOf(words, words.length * 2 + 2);
+        if (n < 64) value &= (1L << n) - 1;
+        words[idx] |= value << off;
+        if (off + n > 64) words[idx + 1] |= value >>> (64 - off);
+        bits += n;
+    }
+
+    long read(int pos, int n) {
+        int idx = pos >>> 6;
+        int off = pos & 63;
+        long value = words[idx] >>> off;
+        if (off + n > 64) value |= words[idx + 1] << (64 - off);
+        return n < 64 ? value & ((1L << n) - 1) : value;
+    }
+
+    // Zig-zag encoded delta-of-delta in 1, 9, 12, 16, 25 or 69 bits
+    void writeDelta(long v) {
+        long zz = (v << 1) ^ (v >> 63);
+        if (zz == 0) {
+            write(0, 1);
+        } else if (zz < (1L << 7)) {
+            write(0b01, 2);
+            write(zz, 7);
+        } else if (zz < (1L << 9)) {
+            write(0b011, 3);
+            write(zz, 9);
+        } else if (zz < (1L << 12)) {
+            write(0b0111, 4);
+            write(zz, 12);
+        } else if (zz < (1L << 20)) {
+            write(0b01111, 5);
+            write(zz, 20);
+        } else {
+            write(0b11111, 5);
+            write(zz, 64);
+        }
+    }
+
+    void trim() {
+        words = Arrays.copyOf(words, (bits + 63) >>> 6);
+    }
+
+    long sizeInBytes() {
+        return 16L + words.length * 8L;
+    }
+
+    static final class Reader {
+        private final BitStream in;
+        private int pos;
+
+        Reader(BitStream in) {
+            this.in = in;
+        }
+
+        long read(int n) {
+            long v = in.read(pos, n);
+            pos += n;
+            return v;
+        }
+
+        long readDelta() {
+            int ones = 0;
+            while (ones < 5 && read(1) == 1) ones++;
+            long zz;
+            switch (ones) {
+                case 0 -> {
+                    return 0;
+                }
+                case 1 -> zz = read(7);
+                case 2 -> zz = read(9);
+                case 3 -> zz = read(12);
+                case 4 -> zz = read(20);
+                default -> zz = read(64);
+            }
+            return (zz >>> 1) ^ -(zz & 1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package history;
+
+import fleet.FleetManager;
+import interfaces.FuelConsumable;
+import interfaces.VehicleListener;
+import vehicles.Vehicle;
+import vehicles.VehicleChange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// In-process history of mileage and fuel level per vehicle. Attached to a FleetManager it takes
+// a sample whenever a vehicle moves, burns or takes on fuel. Values are kept as fixed-point
+// thousandths (1 m, 1 ml) and delta-of-delta encoded in chunks, so a regular journey pattern
+// costs a few bits per sample and irregular ones a few bytes.
+//
+// Sealed chunks older than downsampleAfter are thinned to one sample per step, and chunks older
+// than retention are dropped; both are applied as chunks fill up, or on enforceRetention().
+public class FleetHistory implements VehicleListener {
+    private static final double SCALE = 1000.0;
+    public static final int DEFAULT_CHUNK_SAMPLES = 512;
+
+    private final Map<String, VehicleSeries> series = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final int chunkSamples;
+    private final long retentionMillis;
+    private final long downsampleAfterMillis;
+    private final long downsampleStepMillis;
+
+    public FleetHistory() {
+        this(TimeUnit.DAYS.toMillis(30), TimeUnit.DAYS.toMillis(7), TimeUnit.HOURS.toMillis(1));
+    }
+
+    // 0 disables retention or downsampling respectively
+    public FleetHistory(long retentionMillis, long downsampleAfterMillis, long downsampleStepMillis) {
+        this(System::currentTimeMillis, DEFAULT_CHUNK_SAMPLES, retentionMillis, downsampleAfterMillis, downsampleStepMillis);
+    }
+
+    public FleetHistory(LongSupplier clock, int chunkSamples, long retentionMillis,
+                        long downsampleAfterMillis, long downsampleStepMillis) {
+        if (chunkSamples < 2) throw new IllegalArgumentException("chunkSamples must be >= 2");
+        this.clock = clock;
+        this.chunkSamples = chunkSamples;
+        this.retentionMillis = retentionMillis;
+        this.downsampleAfterMillis = downsampleAfterMillis;
+        this.downsampleStepMillis = downsampleStepMillis;
+    }
+
+    // Starts recording the manager's vehicles, with one sample of their current state
+    public void attach(FleetManager manager) {
+        manager.addVehicleListener(this);
+        for (Vehicle v : manager.getFleet()) record(v);
+    }
+
+    @Override
+    public void vehicleChanged(Vehicle v, VehicleChange change) {
+        switch (change) {
+            case ADDED, MOVED, REFUELED, FUEL_CONSUMED, RESTORED -> record(v);
+            default -> {
+            }
+        }
+    }
+
+    public void record(Vehicle v) {
+        long now = clock.getAsLong();
+        double fuel = v instanceof FuelConsumable f ? f.getFuelLevel() : 0.0;
+        VehicleSeries s = series.computeIfAbsent(v.getId(), k -> new VehicleSeries(chunkSamples));
+        if (s.append(now, Math.round(v.getCurrentMileage() * SCALE), Math.round(fuel * SCALE))) {
+            s.compact(now, retentionMillis, downsampleAfterMillis, downsampleStepMillis);
+        }
+    }
+
+    // Samples with from <= time <= to (epoch millis); empty if the vehicle has no history
+    public HistorySeries range(String vehicleId, long from, long to) {
+        VehicleSeries s = series.get(vehicleId);
+        if (s == null) return new HistorySeries(0);
+        HistorySeries out = new HistorySeries(64);
+        s.collect(from, to, (t, m, f) -> out.add(t, m / SCALE, f / SCALE));
+        return out;
+    }
+
+    public double fuelBurned(String vehicleId, long from, long to) {
+        return range(vehicleId, from, to).fuelBurned();
+    }
+
+    public double distance(String vehicleId, long from, long to) {
+        return range(vehicleId, from, to).distance();
+    }
+
+    public void enforceRetention() {
+        long now = clock.getAsLong();
+        for (VehicleSeries s : series.values()) {
+            s.compact(now, retentionMillis, downsampleAfterMillis, downsampleStepMillis);
+        }
+    }
+
+    public void forget(String vehicleId) {
+        series.remove(vehicleId);
+    }
+
+    public int getVehicleCount() {
+        return series.size();
+    }
+
+    public long getSampleCount() {
+        long n = 0;
+        for (VehicleSeries s : series.values()) n += s.sampleCount();
+        return n;
+    }
+
+    // Approximate heap footprint of the encoded samples
+    public long getSizeInBytes() {
+        long n = 0;
+        for (VehicleSeries s : series.values()) n += s.sizeInBytes();
+        return n;
+    }
+}
@@ -0,0 +1,60 @@
+package history;
+
+import java.util.Arrays;
+
+// Samples of one vehicle over a time range, as plain primitive columns
+public class HistorySeries {
+    private long[] times;
+    private double[] mileage;
+    private double[] fuel;
+    private int size;
+
+    HistorySeries(int capacity) {
+        times = new long[Math.max(4, capacity)];
+        mileage = new double[times.length];
+        fuel = new double[times.length];
+    }
+
+    void add(long time, double m, double f) {
+        if (size == times.length) {
+            int n = size * 2;
+            times = Arrays.copyOf(times, n);
+            mileage = Arrays.copyOf(mileage, n);
+            fuel = Arrays.copyOf(fuel, n);
+        }
+        times[size] = time;
+        mileage[size] = m;
+        fuel[size] = f;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTime(int i) {
+        return times[i];
+    }
+
+    public double getMileage(int i) {
+        return mileage[i];
+    }
+
+    public double getFuel(int i) {
+        return fuel[i];
+    }
+
+    public double distance() {
+        return size < 2 ? 0.0 : mileage[size - 1] - mileage[0];
+    }
+
+    // Sum of all drops in fuel level; refuels in between don't offset it
+    public double fuelBurned() {
+        double burned = 0.0;
+        for (int i = 1; i < size; i++) {
+            double d = fuel[i - 1] - fuel[i];
+            if (d > 0) burned += d;
+        }
+        return burned;
+    }
+}
@@ -0,0 +1,119 @@
+package history;
+
+// Up to a fixed number of consecutive samples of one vehicle. Timestamps and both value columns
+// are stored as delta-of-delta in a single bit stream: the first sample is written raw, later
+// ones cost a single bit per column whenever the step repeats (same interval, same distance,
+// same burn), which is the common case for scheduled journeys.
+final class SeriesChunk {
+    private final BitStream stream;
+    private int count;
+    private long firstTime;
+    private long lastTime;
+    private boolean downsampled;
+
+    // Encoder state, only meaningful while the chunk is open
+    private long prevTime, prevMileage, prevFuel;
+    private long deltaTime, deltaMileage, deltaFuel;
+
+    SeriesChunk() {
+        stream = new BitStream(16);
+    }
+
+    private SeriesChunk(boolean downsampled) {
+        this();
+        this.downsampled = downsampled;
+    }
+
+    void append(long time, long mileage, long fuel) {
+        if (count == 0) {
+            stream.write(time, 64);
+            stream.write(mileage, 64);
+            stream.write(fuel, 64);
+            firstTime = time;
+        } else {
+            long dt = time - prevTime;
+            long dm = mileage - prevMileage;
+            long df = fuel - prevFuel;
+            stream.writeDelta(dt - deltaTime);
+            stream.writeDelta(dm - deltaMileage);
+            stream.writeDelta(df - deltaFuel);
+            deltaTime = dt;
+            deltaMileage = dm;
+            deltaFuel = df;
+        }
+        prevTime = time;
+        prevMileage = mileage;
+        prevFuel = fuel;
+        lastTime = time;
+        count++;
+    }
+
+    void seal() {
+        stream.trim();
+    }
+
+    int count() {
+        return count;
+    }
+
+    long firstTime() {
+        return firstTime;
+    }
+
+    long lastTime() {
+        return lastTime;
+    }
+
+    boolean isDownsampled() {
+        return downsampled;
+    }
+
+    long sizeInBytes() {
+        return 48 + stream.sizeInBytes();
+    }
+
+    // Feeds every sample with from <= time <= to to the sink, in time order
+    void decode(long from, long to, SampleSink sink) {
+        BitStream.Reader in = new BitStream.Reader(stream);
+        long t = 0, m = 0, f = 0, dt = 0, dm = 0, df = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                t = in.read(64);
+                m = in.read(64);
+                f = in.read(64);
+            } else {
+                dt += in.readDelta();
+                dm += in.readDelta();
+                df += in.readDelta();
+                t += dt;
+                m += dm;
+                f += df;
+            }
+            if (t > to) return;
+            if (t >= from) sink.accept(t, m, f);
+        }
+    }
+
+    // Keeps the last sample of every step-aligned interval
+    SeriesChunk downsample(long stepMillis) {
+        SeriesChunk out = new SeriesChunk(true);
+        long[] pending = new long[3];
+        boolean[] has = new boolean[1];
+        decode(Long.MIN_VALUE, Long.MAX_VALUE, (t, m, f) -> {
+            if (has[0] && Math.floorDiv(t, stepMillis) != Math.floorDiv(pending[0], stepMillis)) {
+                out.append(pending[0], pending[1], pending[2]);
+            }
+            pending[0] = t;
+            pending[1] = m;
+            pending[2] = f;
+            has[0] = true;
+        });
+        if (has[0]) out.append(pending[0], pending[1], pending[2]);
+        out.seal();
+        return out;
+    }
+
+    interface SampleSink {
+        void accept(long time, long mileage, long fuel);
+    }
+}
@@ -0,0 +1,74 @@
+package history;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// All retained chunks of one vehicle, oldest first; the last one is open for appends
+final class VehicleSeries {
+    private final List<SeriesChunk> chunks = new ArrayList<>();
+    private final int chunkSamples;
+    private SeriesChunk open;
+    private long lastTime = Long.MIN_VALUE;
+
+    VehicleSeries(int chunkSamples) {
+        this.chunkSamples = chunkSamples;
+    }
+
+    // Returns true when a chunk was sealed, i.e. it's a good moment to apply retention
+    synchronized boolean append(long time, long mileage, long fuel) {
+        if (time < lastTime) time = lastTime;  // wall clock stepped back
+        lastTime = time;
+        boolean sealed = false;
+        if (open == null || open.count() == chunkSamples) {
+            if (open != null) {
+                open.seal();
+                sealed = true;
+            }
+            open = new SeriesChunk();
+            chunks.add(open);
+        }
+        open.append(time, mileage, fuel);
+        return sealed;
+    }
+
+    synchronized void collect(long from, long to, SeriesChunk.SampleSink sink) {
+        int lo = 0, hi = chunks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chunks.get(mid).lastTime() < from) lo = mid + 1;
+            else hi = mid;
+        }
+        for (int i = lo; i < chunks.size(); i++) {
+            SeriesChunk c = chunks.get(i);
+            if (c.firstTime() > to) break;
+            c.decode(from, to, sink);
+        }
+    }
+
+    synchronized void compact(long now, long retentionMillis, long downsampleAfterMillis, long stepMillis) {
+        int drop = 0;
+        if (retentionMillis > 0) {
+            while (drop < chunks.size() - 1 && chunks.get(drop).lastTime() < now - retentionMillis) drop++;
+            if (drop > 0) chunks.subList(0, drop).clear();
+        }
+        if (downsampleAfterMillis > 0 && stepMillis > 0) {
+            for (int i = 0; i < chunks.size() - 1; i++) {
+                SeriesChunk c = chunks.get(i);
+                if (c.lastTime() >= now - downsampleAfterMillis) break;
+                if (!c.isDownsampled()) chunks.set(i, c.downsample(stepMillis));
+            }
+        }
+    }
+
+    synchronized long sampleCount() {
+        long n = 0;
+        for (SeriesChunk c : chunks) n += c.count();
+        return n;
+    }
+
+    synchronized long sizeInBytes() {
+        long n = 64;
+        for (SeriesChunk c : chunks) n += c.sizeInBytes();
+        return n;
+    }
+}
@@ -5,6 +5,9 @@ import exceptions.InvalidOperationException;
 
 public interface FuelConsumable {
     void refuel(double amount) throws InvalidOperationException;
+    // Puts the tank back to a level read earlier, e.g. to roll back a bulk refuel that failed part way.
+    // Reported as VehicleChange.RESTORED rather than REFUELED, since no fuel was taken on.
+    void restoreFuel(double level) throws InvalidOperationException;
     double getFuelLevel();
     double consumeFuel(double distance) throws InsufficientFuelException;
 }
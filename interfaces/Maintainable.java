@@ -3,5 +3,7 @@ package interfaces;
 public interface Maintainable {
     void scheduleMaintenance();
     boolean needsMaintenance();
+    // Only the explicit scheduleMaintenance() flag, not being due by mileage
+    boolean isMaintenanceScheduled();
     void performMaintenance();
 }
@@ -0,0 +1,9 @@
+package interfaces;
+
+import vehicles.Vehicle;
+import vehicles.VehicleChange;
+
+public interface VehicleListener {
+    // Called on the mutating thread, after the change has been applied
+    void vehicleChanged(Vehicle v, VehicleChange change);
+}
@@ -0,0 +1,152 @@
+package maintenance;
+
+import fleet.FleetManager;
+import interfaces.VehicleListener;
+import vehicles.Vehicle;
+import vehicles.VehicleChange;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fleet ranked by Vehicle.getWearScore(), kept current from the vehicle change hook. Vehicles sit
+// on intrusive linked lists in score buckets, so re-ranking one after a move or a service is O(1)
+// and the most worn vehicles are read off the top buckets without sorting or scanning the fleet.
+// Vehicles within one bucket are in no particular order. Buckets are BUCKET_WIDTH wide up to
+// LINEAR_LIMIT and grow geometrically above it, so long-overdue vehicles (say, rows saved before
+// service counters existed) are still ranked to within RELATIVE_WIDTH of their score.
+public class WearRanking implements VehicleListener {
+    public static final double BUCKET_WIDTH = 0.01;
+    public static final double LINEAR_LIMIT = 5.0;
+    public static final double RELATIVE_WIDTH = 0.01;
+    // Scores from here up share the top bucket; no odometer gets anywhere near it
+    public static final double MAX_SCORE = 1e12;
+    private static final int LINEAR_BUCKETS = (int) Math.round(LINEAR_LIMIT / BUCKET_WIDTH);
+    private static final double LOG_STEP = Math.log1p(RELATIVE_WIDTH);
+    private static final int BUCKETS = LINEAR_BUCKETS + (int) Math.ceil(Math.log(MAX_SCORE / LINEAR_LIMIT) / LOG_STEP) + 1;
+
+    private final Node[] heads = new Node[BUCKETS];
+    private final int[] counts = new int[BUCKETS];
+    private final Map<Vehicle, Node> nodes = new IdentityHashMap<>();
+    private int top = -1;  // highest non-empty bucket
+
+    // Ranks the manager's current vehicles and follows its changes from now on
+    public synchronized void attach(FleetManager manager) {
+        manager.addVehicleListener(this);
+        for (Vehicle v : manager.getFleet()) place(v);
+    }
+
+    @Override
+    public synchronized void vehicleChanged(Vehicle v, VehicleChange change) {
+        switch (change) {
+            case ADDED, MOVED, FUEL_CONSUMED, MAINTAINED, RESTORED -> place(v);
+            case REMOVED -> remove(v);
+            default -> {
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized Vehicle mostWorn() {
+        return top < 0 ? null : heads[top].vehicle;
+    }
+
+    // Up to k vehicles, most worn first (to bucket precision)
+    public synchronized List<Vehicle> mostWorn(int k) {
+        List<Vehicle> out = new ArrayList<>(Math.min(k, nodes.size()));
+        for (int b = top; b >= 0 && out.size() < k; b--) {
+            for (Node n = heads[b]; n != null && out.size() < k; n = n.next) out.add(n.vehicle);
+        }
+        return out;
+    }
+
+    public synchronized int countAtLeast(double score) {
+        int n = 0;
+        for (int b = bucketOf(score); b <= top; b++) n += counts[b];
+        return n;
+    }
+
+    // 1-based; vehicles sharing a bucket share a rank. 0 if the vehicle isn't ranked.
+    public synchronized int rankOf(Vehicle v) {
+        Node node = nodes.get(v);
+        if (node == null) return 0;
+        int above = 0;
+        for (int b = node.bucket + 1; b <= top; b++) above += counts[b];
+        return above + 1;
+    }
+
+    // The score as of the vehicle's last ranked change
+    public synchronized double scoreOf(Vehicle v) {
+        Node node = nodes.get(v);
+        return node == null ? 0.0 : node.score;
+    }
+
+    private void place(Vehicle v) {
+        double score = v.getWearScore();
+        int b = bucketOf(score);
+        Node n = nodes.get(v);
+        if (n == null) {
+            n = new Node(v);
+            nodes.put(v, n);
+        } else if (n.bucket == b) {
+            n.score = score;
+            return;
+        } else {
+            unlink(n);
+        }
+        n.score = score;
+        link(n, b);
+    }
+
+    private void remove(Vehicle v) {
+        Node n = nodes.remove(v);
+        if (n != null) unlink(n);
+    }
+
+    private void link(Node n, int b) {
+        n.bucket = b;
+        n.prev = null;
+        n.next = heads[b];
+        if (heads[b] != null) heads[b].prev = n;
+        heads[b] = n;
+        counts[b]++;
+        if (b > top) top = b;
+    }
+
+    private void unlink(Node n) {
+        int b = n.bucket;
+        if (n.prev != null) n.prev.next = n.next;
+        else heads[b] = n.next;
+        if (n.next != null) n.next.prev = n.prev;
+        counts[b]--;
+        // Bounded by BUCKETS, not by fleet size
+        while (top >= 0 && counts[top] == 0) top--;
+    }
+
+    // How far above score another score can be and still share its bucket
+    public static double precisionAt(double score) {
+        return score < LINEAR_LIMIT ? BUCKET_WIDTH : score * RELATIVE_WIDTH;
+    }
+
+    private static int bucketOf(double score) {
+        if (!(score > 0)) return 0;
+        if (score < LINEAR_LIMIT) return (int) (score / BUCKET_WIDTH);
+        return (int) Math.min(BUCKETS - 1, LINEAR_BUCKETS + Math.log(score / LINEAR_LIMIT) / LOG_STEP);
+    }
+
+    private static final class Node {
+        final Vehicle vehicle;
+        double score;
+        int bucket;
+        Node prev;
+        Node next;
+
+        Node(Vehicle vehicle) {
+            this.vehicle = vehicle;
+        }
+    }
+}
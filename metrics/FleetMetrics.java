@@ -0,0 +1,234 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import util.JsonLine;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide counters and latency histograms for fleet operations. Enabled with
+// -Dfleet.metrics=true; ENABLED is a static final, so with metrics off every
+// "if (FleetMetrics.ENABLED)" guard is folded away by the JIT.
+public final class FleetMetrics {
+    public static final boolean ENABLED = Boolean.getBoolean("fleet.metrics");
+
+    public enum Op {
+        ADD_VEHICLE, REMOVE_VEHICLE, TRANSFER, MOVE, START_ALL_JOURNEYS, MAINTAIN_ALL, GENERATE_REPORT, SAVE, LOAD
+    }
+
+    // Histograms live in a holder class so a disabled run never allocates them
+    private static final class Holder {
+        static final OpMetrics[] ops = new OpMetrics[Op.values().length];
+        static final ClassValue<OpMetrics[]> byType = new ClassValue<>() {
+            @Override
+            protected OpMetrics[] computeValue(Class<?> type) {
+                return new OpMetrics[Op.values().length];
+            }
+        };
+
+        static {
+            for (Op op : Op.values()) ops[op.ordinal()] = new OpMetrics();
+        }
+    }
+
+    private FleetMetrics() {
+    }
+
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    public static void success(Op op, long startNanos) {
+        if (!ENABLED) return;
+        Holder.ops[op.ordinal()].latency.record(System.nanoTime() - startNanos);
+    }
+
+    public static void success(Op op, Class<?> vehicleType, long startNanos) {
+        if (!ENABLED) return;
+        long elapsed = System.nanoTime() - startNanos;
+        Holder.ops[op.ordinal()].latency.record(elapsed);
+        typeMetrics(op, vehicleType).latency.record(elapsed);
+    }
+
+    public static void failure(Op op, Throwable error) {
+        failure(op, error.getClass());
+    }
+
+    public static void failure(Op op, Class<? extends Throwable> errorType) {
+        if (!ENABLED) return;
+        Holder.ops[op.ordinal()].fail(errorType);
+    }
+
+    public static void failure(Op op, Class<?> vehicleType, Throwable error) {
+        failure(op, vehicleType, error.getClass());
+    }
+
+    // For callers that learn of a failure from a result code rather than a thrown exception
+    public static void failure(Op op, Class<?> vehicleType, Class<? extends Throwable> errorType) {
+        if (!ENABLED) return;
+        Holder.ops[op.ordinal()].fail(errorType);
+        typeMetrics(op, vehicleType).fail(errorType);
+    }
+
+    public static void reset() {
+        for (OpMetrics m : Holder.ops) m.reset();
+    }
+
+    public static String toText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# fleet metrics (enabled=").append(ENABLED).append(", latencies in ns)\n");
+        for (Op op : Op.values()) {
+            OpMetrics m = Holder.ops[op.ordinal()];
+            if (m.latency.getCount() == 0 && m.failures.sum() == 0) continue;
+            appendText(sb, op.name(), m);
+        }
+        return sb.toString();
+    }
+
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"enabled\":").append(ENABLED).append(",\"ops\":{");
+        boolean first = true;
+        for (Op op : Op.values()) {
+            OpMetrics m = Holder.ops[op.ordinal()];
+            if (m.latency.getCount() == 0 && m.failures.sum() == 0) continue;
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(JsonLine.quote(op.name())).append(':');
+            appendJson(sb, m);
+        }
+        return sb.append("}}").toString();
+    }
+
+    // -Dfleet.metrics.port=N serves the endpoint, -Dfleet.metrics.file=path dumps on JVM exit
+    public static void configureFromSystemProperties() {
+        if (!ENABLED) return;
+        String port = System.getProperty("fleet.metrics.port");
+        if (port != null) {
+            try {
+                HttpServer server = startEndpoint(Integer.parseInt(port));
+                System.out.println("Metrics at http://127.0.0.1:" + server.getAddress().getPort() + "/metrics");
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("Could not start metrics endpoint: " + e.getMessage());
+            }
+        }
+        String file = System.getProperty("fleet.metrics.file");
+        if (file != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeTo(file), "fleet-metrics-dump"));
+        }
+    }
+
+    public static void writeTo(String filename) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
+            pw.print(filename.endsWith(".json") ? toJson() : toText());
+        } catch (IOException e) {
+            System.out.println("Error writing metrics: " + e.getMessage());
+        }
+    }
+
+    // Serves /metrics (text) and /metrics.json on the loopback interface; port 0 picks a free port
+    public static HttpServer startEndpoint(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            boolean json = exchange.getRequestURI().getPath().endsWith(".json");
+            byte[] body = (json ? toJson() : toText()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", json ? "application/json" : "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static OpMetrics typeMetrics(Op op, Class<?> vehicleType) {
+        OpMetrics[] perType = Holder.byType.get(vehicleType);
+        OpMetrics m = perType[op.ordinal()];
+        if (m == null) {
+            synchronized (perType) {
+                m = perType[op.ordinal()];
+                if (m == null) {
+                    m = new OpMetrics();
+                    perType[op.ordinal()] = m;
+                    Holder.ops[op.ordinal()].types.put(vehicleType.getSimpleName(), m);
+                }
+            }
+        }
+        return m;
+    }
+
+    private static void appendText(StringBuilder sb, String name, OpMetrics m) {
+        LatencyHistogram h = m.latency;
+        sb.append(name)
+                .append(" count=").append(h.getCount())
+                .append(" failures=").append(m.failures.sum())
+                .append(" mean=").append((long) h.getMean())
+                .append(" p50=").append(h.getPercentile(50))
+                .append(" p99=").append(h.getPercentile(99))
+                .append(" p999=").append(h.getPercentile(99.9))
+                .append(" max=").append(h.getMax()).append('\n');
+        for (Map.Entry<Class<?>, LongAdder> e : m.failuresByType.entrySet()) {
+            sb.append("  failure ").append(e.getKey().getSimpleName()).append('=').append(e.getValue().sum()).append('\n');
+        }
+        for (Map.Entry<String, OpMetrics> e : m.types.entrySet()) {
+            appendText(sb, name + "." + e.getKey(), e.getValue());
+        }
+    }
+
+    private static void appendJson(StringBuilder sb, OpMetrics m) {
+        LatencyHistogram h = m.latency;
+        sb.append("{\"count\":").append(h.getCount())
+                .append(",\"failures\":").append(m.failures.sum())
+                .append(",\"mean\":").append((long) h.getMean())
+                .append(",\"p50\":").append(h.getPercentile(50))
+                .append(",\"p99\":").append(h.getPercentile(99))
+                .append(",\"p999\":").append(h.getPercentile(99.9))
+                .append(",\"max\":").append(h.getMax())
+                .append(",\"failuresByException\":{");
+        boolean first = true;
+        for (Map.Entry<Class<?>, LongAdder> e : m.failuresByType.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(JsonLine.quote(e.getKey().getSimpleName())).append(':').append(e.getValue().sum());
+        }
+        sb.append("},\"byVehicleType\":{");
+        first = true;
+        for (Map.Entry<String, OpMetrics> e : m.types.entrySet()) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append(JsonLine.quote(e.getKey())).append(':');
+            appendJson(sb, e.getValue());
+        }
+        sb.append("}}");
+    }
+
+    private static final class OpMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final ConcurrentHashMap<Class<?>, LongAdder> failuresByType = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<String, OpMetrics> types = new ConcurrentHashMap<>();
+
+        void fail(Class<? extends Throwable> errorType) {
+            failures.increment();
+            LongAdder a = failuresByType.get(errorType);
+            if (a == null) a = failuresByType.computeIfAbsent(errorType, k -> new LongAdder());
+            a.increment();
+        }
+
+        void reset() {
+            latency.reset();
+            failures.reset();
+            failuresByType.clear();
+            for (OpMetrics m : types.values()) m.reset();
+        }
+    }
+}
@@ -0,0 +1,506 @@
+package offheap;
+
+import codec.VehicleCodec;
+import codec.VehicleCodecs;
+import exceptions.InsufficientFuelException;
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import fleet.FleetStats;
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import vehicles.CargoShip;
+import vehicles.Vehicle;
+import vehicles.VehicleSpec;
+import vehicles.VehicleSpecTable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fleet state for very large fleets, kept outside the Java heap. Each vehicle is one fixed-width
+// slot in a direct ByteBuffer segment and the ID -> slot index is an open-addressing table that
+// is off-heap too, so the heap only holds the segment array and the (small) model/extra string
+// dictionary no matter how many vehicles are stored. Vehicle objects are created only on demand
+// through the type's codec (materialize).
+//
+// Not thread-safe; like FleetManager, callers serialize access themselves.
+public class OffHeapVehicleStore {
+    // Slot layout
+    private static final int TAG = 0;          // byte, codec tag; 0 = free slot
+    private static final int FLAGS = 1;        // byte
+    private static final int ID_LEN = 2;       // short
+    private static final int SPEC = 4;         // int, spec index; next free slot when free
+    private static final int MODEL = 8;        // int, dictionary code
+    private static final int EXTRA = 12;       // int, dictionary code
+    private static final int FUEL = 16;        // double
+    private static final int CARGO = 24;       // double
+    private static final int MILEAGE = 32;     // double
+    private static final int MAX_SPEED = 40;   // double
+    private static final int PASSENGERS = 48;  // int
+    private static final int HASH = 52;        // int, hash of the id bytes
+    private static final int SERVICE = 56;     // double, odometer at the last service
+    private static final int ID = 64;
+    public static final int MAX_ID_BYTES = 40;
+    private static final int SLOT_SIZE = ID + MAX_ID_BYTES;
+
+    private static final int FLAG_MAINTENANCE = 1;
+    private static final int FLAG_SAIL = 2;
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SLOTS - 1;
+
+    private ByteBuffer[] segments = new ByteBuffer[4];
+    private int segmentCount;
+    private int slotsUsed;         // high-water mark
+    private int freeHead = -1;
+    private int size;
+
+    // ID index: int entries holding slot + 1 (0 = empty), linear probing, backward-shift delete
+    private ByteBuffer table;
+    private int tableMask;
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+
+    public OffHeapVehicleStore() {
+        this(1024);
+    }
+
+    public OffHeapVehicleStore(int expectedVehicles) {
+        int cap = Integer.highestOneBit(Math.max(16, expectedVehicles * 2 - 1)) << 1;
+        allocateTable(cap);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(String id) {
+        return find(encode(id)) >= 0;
+    }
+
+    // Off-heap bytes currently reserved by slots and index
+    public long getOffHeapBytes() {
+        return (long) segmentCount * SEGMENT_SLOTS * SLOT_SIZE + table.capacity();
+    }
+
+    public void addVehicle(Vehicle v) throws InvalidOperationException {
+        VehicleCodec<Vehicle> codec = codecFor(v);
+        int slot = insert(v.getId(), codec.tag(), v.getSpec(), v.getModel(), codec.extra(v), v.getMaxSpeed());
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        if (v instanceof FuelConsumable f) seg.putDouble(base + FUEL, f.getFuelLevel());
+        if (v instanceof CargoCarrier c) seg.putDouble(base + CARGO, c.getCurrentCargo());
+        if (v instanceof PassengerCarrier p) seg.putInt(base + PASSENGERS, p.getCurrentPassengers());
+        seg.putDouble(base + MILEAGE, v.getCurrentMileage());
+        seg.putDouble(base + SERVICE, v.getMileageAtService());
+        int flags = seg.get(base + FLAGS);
+        // Being due by mileage is derived from MILEAGE and SERVICE; only the explicit flag is stored
+        if (v instanceof Maintainable m && m.isMaintenanceScheduled()) flags |= FLAG_MAINTENANCE;
+        seg.put(base + FLAGS, (byte) flags);
+    }
+
+    // Adds a new, empty vehicle without ever creating the object
+    public void addVehicle(String type, String id, String model, double maxSpeed, String extra)
+            throws InvalidOperationException {
+        VehicleCodec<?> codec = VehicleCodecs.forName(type);
+        if (codec == null) throw new InvalidOperationException("Unknown vehicle type: " + type);
+        String m = model == null ? "Unknown" : model;
+        insert(id, codec.tag(), VehicleSpecTable.lookup(type, m), m, extra, maxSpeed);
+    }
+
+    public int addAll(Iterable<? extends Vehicle> vehicles) {
+        int added = 0;
+        for (Vehicle v : vehicles) {
+            try {
+                addVehicle(v);
+                added++;
+            } catch (InvalidOperationException e) {
+                System.out.println("Skipping vehicle: " + e.getMessage());
+            }
+        }
+        return added;
+    }
+
+    public void removeVehicle(String id) throws InvalidOperationException {
+        byte[] key = encode(id);
+        int pos = findPosition(key, hash(key));
+        if (pos < 0) throw new InvalidOperationException("Vehicle with ID " + id + " not found");
+        int slot = table.getInt(pos << 2) - 1;
+        deleteAt(pos);
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        for (int i = 0; i < SLOT_SIZE; i += 8) seg.putLong(base + i, 0L);
+        seg.putInt(base + SPEC, freeHead);
+        freeHead = slot;
+        size--;
+    }
+
+    public void move(String id, double distance) throws InvalidOperationException, InsufficientFuelException {
+        moveSlot(slotOf(id), distance);
+    }
+
+    public void refuel(String id, double amount) throws InvalidOperationException {
+        int slot = slotOf(id);
+        if (isSailing(slot)) throw new InvalidOperationException("This ship has sail; refuel not applicable");
+        if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive");
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        seg.putDouble(base + FUEL, seg.getDouble(base + FUEL) + amount);
+    }
+
+    public void loadCargo(String id, double weight) throws InvalidOperationException, OverloadException {
+        int slot = slotOf(id);
+        if (weight <= 0) return;
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        double cargo = seg.getDouble(base + CARGO);
+        if (cargo + weight > VehicleSpecTable.cargoCapacity(seg.getInt(base + SPEC)))
+            throw new OverloadException("Cargo overload for " + id);
+        seg.putDouble(base + CARGO, cargo + weight);
+    }
+
+    public void unloadCargo(String id, double weight) throws InvalidOperationException {
+        if (weight < 0) throw new InvalidOperationException("Invalid unload weight");
+        int slot = slotOf(id);
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        double cargo = seg.getDouble(base + CARGO);
+        if (weight > cargo) throw new InvalidOperationException("Cannot unload more than current cargo");
+        seg.putDouble(base + CARGO, cargo - weight);
+    }
+
+    public void boardPassengers(String id, int count) throws InvalidOperationException, OverloadException {
+        int slot = slotOf(id);
+        if (count <= 0) return;
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        int onboard = seg.getInt(base + PASSENGERS);
+        if (onboard + count > VehicleSpecTable.passengerCapacity(seg.getInt(base + SPEC)))
+            throw new OverloadException("Passenger overload for " + id);
+        seg.putInt(base + PASSENGERS, onboard + count);
+    }
+
+    public double getFuelLevel(String id) throws InvalidOperationException {
+        int slot = slotOf(id);
+        return segment(slot).getDouble(offset(slot) + FUEL);
+    }
+
+    public double getCurrentMileage(String id) throws InvalidOperationException {
+        int slot = slotOf(id);
+        return segment(slot).getDouble(offset(slot) + MILEAGE);
+    }
+
+    // Failures are only printed while vehicle logging is on, so a huge fleet can't flood stdout
+    public void startAllJourneys(double distance) {
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            if (segment(slot).get(offset(slot) + TAG) == 0) continue;
+            try {
+                moveSlot(slot, distance);
+            } catch (InsufficientFuelException | InvalidOperationException e) {
+                if (Vehicle.isLoggingEnabled()) System.out.println("Error for vehicle " + idOf(slot) + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Like FleetManager.getTotalFuelConsumption, burns the fuel for the distance from every fuelled
+    // vehicle (no mileage is added) and returns the total burned; vehicles short of fuel, and sail
+    // ships, burn nothing
+    public double getTotalFuelConsumption(double distance) {
+        double total = 0.0;
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            ByteBuffer seg = segment(slot);
+            int base = offset(slot);
+            if (seg.get(base + TAG) == 0) continue;
+            try {
+                total += burnSlot(seg, base, distance);
+            } catch (InsufficientFuelException e) {
+                if (Vehicle.isLoggingEnabled()) System.out.println("Not enough fuel for " + idOf(slot));
+            }
+        }
+        return total;
+    }
+
+    public void maintainAll() {
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            ByteBuffer seg = segment(slot);
+            int base = offset(slot);
+            if (seg.get(base + TAG) == 0 || !needsMaintenance(seg, base)) continue;
+            seg.put(base + FLAGS, (byte) (seg.get(base + FLAGS) & ~FLAG_MAINTENANCE));
+            seg.putDouble(base + SERVICE, seg.getDouble(base + MILEAGE));
+        }
+    }
+
+    public FleetStats collectStats() {
+        int[] perTag = new int[128];
+        double effSum = 0.0;
+        int effCount = 0;
+        double mileage = 0.0;
+        int maintenance = 0;
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            ByteBuffer seg = segment(slot);
+            int base = offset(slot);
+            int tag = seg.get(base + TAG);
+            if (tag == 0) continue;
+            perTag[tag]++;
+            if ((seg.get(base + FLAGS) & FLAG_SAIL) == 0) {
+                double eff = efficiency(seg, base);
+                if (eff > 0) {
+                    effSum += eff;
+                    effCount++;
+                }
+            }
+            mileage += seg.getDouble(base + MILEAGE);
+            if (needsMaintenance(seg, base)) maintenance++;
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (int tag = 1; tag < perTag.length; tag++) {
+            if (perTag[tag] > 0) counts.put(VehicleCodecs.forTag(tag).name(), perTag[tag]);
+        }
+        FleetStats stats = new FleetStats();
+        stats.addPartial(size, counts, effSum, effCount, mileage, maintenance);
+        return stats;
+    }
+
+    public List<String> getVehiclesNeedingMaintenance() {
+        List<String> ids = new ArrayList<>();
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            ByteBuffer seg = segment(slot);
+            int base = offset(slot);
+            if (seg.get(base + TAG) != 0 && needsMaintenance(seg, base)) ids.add(idOf(slot));
+        }
+        return ids;
+    }
+
+    // Builds a regular Vehicle object holding the slot's current state
+    public Vehicle materialize(String id) throws InvalidOperationException {
+        int slot = slotOf(id);
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        VehicleCodec<?> codec = VehicleCodecs.forTag(seg.get(base + TAG));
+        Vehicle v = codec.create(id, dictionary.get(seg.getInt(base + MODEL)), seg.getDouble(base + MAX_SPEED),
+                dictionary.get(seg.getInt(base + EXTRA)));
+        double fuel = seg.getDouble(base + FUEL);
+        int passengers = seg.getInt(base + PASSENGERS);
+        double cargo = seg.getDouble(base + CARGO);
+        try {
+            if (fuel > 0 && v instanceof FuelConsumable f) f.refuel(fuel);
+            if (passengers > 0 && v instanceof PassengerCarrier p) p.boardPassengers(passengers);
+            if (cargo > 0 && v instanceof CargoCarrier c) c.loadCargo(cargo);
+        } catch (OverloadException e) {
+            throw new InvalidOperationException("Stored state exceeds capacity for " + id);
+        }
+        v.restoreMileage(seg.getDouble(base + MILEAGE));
+        // Only the service odometer reading is stored; load hours and fuel since service restart at zero
+        double service = seg.getDouble(base + SERVICE);
+        if (service > 0) v.restoreService(service, 0.0, 0.0);
+        if ((seg.get(base + FLAGS) & FLAG_MAINTENANCE) != 0 && v instanceof Maintainable m) m.scheduleMaintenance();
+        return v;
+    }
+
+    public List<String> ids() {
+        List<String> ids = new ArrayList<>(size);
+        for (int slot = 0; slot < slotsUsed; slot++) {
+            if (segment(slot).get(offset(slot) + TAG) != 0) ids.add(idOf(slot));
+        }
+        return ids;
+    }
+
+    // ---- slots ----
+
+    private int insert(String id, int tag, VehicleSpec spec, String model, String extra, double maxSpeed)
+            throws InvalidOperationException {
+        if (id == null || id.trim().isEmpty()) throw new InvalidOperationException("Vehicle ID must be non-empty");
+        byte[] key = encode(id);
+        if (key.length > MAX_ID_BYTES)
+            throw new InvalidOperationException("Vehicle ID longer than " + MAX_ID_BYTES + " bytes: " + id);
+        int h = hash(key);
+        if (findPosition(key, h) >= 0) throw new InvalidOperationException("Vehicle with ID " + id + " already exists");
+
+        int slot = allocateSlot();
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        seg.put(base + TAG, (byte) tag);
+        int flags = 0;
+        if (tag == VehicleCodecs.forType(CargoShip.class).tag() && Boolean.parseBoolean(extra)) flags |= FLAG_SAIL;
+        seg.put(base + FLAGS, (byte) flags);
+        seg.putShort(base + ID_LEN, (short) key.length);
+        seg.putInt(base + SPEC, spec.getIndex());
+        seg.putInt(base + MODEL, code(model));
+        seg.putInt(base + EXTRA, code(extra));
+        seg.putDouble(base + MAX_SPEED, maxSpeed);
+        seg.putInt(base + HASH, h);
+        seg.put(base + ID, key);
+
+        if ((size + 1) * 4L > (tableMask + 1) * 3L) allocateTable((tableMask + 1) << 1);
+        int pos = h & tableMask;
+        while (table.getInt(pos << 2) != 0) pos = (pos + 1) & tableMask;
+        table.putInt(pos << 2, slot + 1);
+        size++;
+        return slot;
+    }
+
+    private void moveSlot(int slot, double distance) throws InvalidOperationException, InsufficientFuelException {
+        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        if ((seg.get(base + FLAGS) & FLAG_SAIL) == 0) burnSlot(seg, base, distance);
+        seg.putDouble(base + MILEAGE, seg.getDouble(base + MILEAGE) + distance);
+    }
+
+    // Returns the fuel burned
+    private static double burnSlot(ByteBuffer seg, int base, double distance) throws InsufficientFuelException {
+        if ((seg.get(base + FLAGS) & FLAG_SAIL) != 0) throw new InsufficientFuelException("Ship uses sail; no fuel consumed");
+        double needed = distance / efficiency(seg, base);
+        double fuel = seg.getDouble(base + FUEL);
+        if (needed > fuel) throw new InsufficientFuelException("Insufficient fuel");
+        seg.putDouble(base + FUEL, fuel - needed);
+        return needed;
+    }
+
+    private static double efficiency(ByteBuffer seg, int base) {
+        return VehicleSpecTable.get(seg.getInt(base + SPEC)).efficiencyAt(seg.getDouble(base + CARGO));
+    }
+
+    private static boolean needsMaintenance(ByteBuffer seg, int base) {
+        return (seg.get(base + FLAGS) & FLAG_MAINTENANCE) != 0
+                || seg.getDouble(base + MILEAGE) - seg.getDouble(base + SERVICE)
+                > VehicleSpecTable.serviceInterval(seg.getInt(base + SPEC));
+    }
+
+    private boolean isSailing(int slot) {
+        return (segment(slot).get(offset(slot) + FLAGS) & FLAG_SAIL) != 0;
+    }
+
+    private int allocateSlot() {
+        if (freeHead >= 0) {
+            int slot = freeHead;
+            freeHead = segment(slot).getInt(offset(slot) + SPEC);
+            return slot;
+        }
+        int slot = slotsUsed;
+        if ((slot >>> SEGMENT_SHIFT) == segmentCount) {
+            if (segmentCount == segments.length) segments = Arrays.copyOf(segments, segmentCount * 2);
+            segments[segmentCount++] = ByteBuffer.allocateDirect(SEGMENT_SLOTS * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        }
+        slotsUsed++;
+        return slot;
+    }
+
+    private ByteBuffer segment(int slot) {
+        return segments[slot >>> SEGMENT_SHIFT];
+    }
+
+    private static int offset(int slot) {
+        return (slot & SEGMENT_MASK) * SLOT_SIZE;
+    }
+
+    private String idOf(int slot) {
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        byte[] b = new byte[seg.getShort(base + ID_LEN)];
+        seg.get(base + ID, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private int code(String s) {
+        Integer c = dictionaryCodes.get(s);
+        if (c != null) return c;
+        dictionary.add(s);
+        dictionaryCodes.put(s, dictionary.size() - 1);
+        return dictionary.size() - 1;
+    }
+
+    // ---- index ----
+
+    private int slotOf(String id) throws InvalidOperationException {
+        int slot = find(encode(id));
+        if (slot < 0) throw new InvalidOperationException("Vehicle with ID " + id + " not found");
+        return slot;
+    }
+
+    private int find(byte[] key) {
+        int pos = findPosition(key, hash(key));
+        return pos < 0 ? -1 : table.getInt(pos << 2) - 1;
+    }
+
+    private int findPosition(byte[] key, int h) {
+        int pos = h & tableMask;
+        while (true) {
+            int entry = table.getInt(pos << 2);
+            if (entry == 0) return -1;
+            int slot = entry - 1;
+            if (segment(slot).getInt(offset(slot) + HASH) == h && idEquals(slot, key)) return pos;
+            pos = (pos + 1) & tableMask;
+        }
+    }
+
+    private boolean idEquals(int slot, byte[] key) {
+        ByteBuffer seg = segment(slot);
+        int base = offset(slot);
+        if (seg.getShort(base + ID_LEN) != key.length) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (seg.get(base + ID + i) != key[i]) return false;
+        }
+        return true;
+    }
+
+    private void deleteAt(int pos) {
+        int hole = pos;
+        int i = pos;
+        while (true) {
+            i = (i + 1) & tableMask;
+            int entry = table.getInt(i << 2);
+            if (entry == 0) break;
+            int slot = entry - 1;
+            int home = segment(slot).getInt(offset(slot) + HASH) & tableMask;
+            // Shift back entries whose probe sequence passes through the hole
+            if (((i - home) & tableMask) >= ((i - hole) & tableMask)) {
+                table.putInt(hole << 2, entry);
+                hole = i;
+            }
+        }
+        table.putInt(hole << 2, 0);
+    }
+
+    private void allocateTable(int capacity) {
+        ByteBuffer old = table;
+        int oldCapacity = old == null ? 0 : tableMask + 1;
+        table = ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder());
+        tableMask = capacity - 1;
+        for (int i = 0; i < oldCapacity; i++) {
+            int entry = old.getInt(i << 2);
+            if (entry == 0) continue;
+            int slot = entry - 1;
+            int pos = segment(slot).getInt(offset(slot) + HASH) & tableMask;
+            while (table.getInt(pos << 2) != 0) pos = (pos + 1) & tableMask;
+            table.putInt(pos << 2, entry);
+        }
+    }
+
+    private static byte[] encode(String id) {
+        return id.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) h = 31 * h + b;
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VehicleCodec<Vehicle> codecFor(Vehicle v) throws InvalidOperationException {
+        VehicleCodec<Vehicle> codec = (VehicleCodec<Vehicle>) VehicleCodecs.forType(v.getClass());
+        if (codec == null) throw new InvalidOperationException("No codec for " + v.getClass().getSimpleName());
+        return codec;
+    }
+}
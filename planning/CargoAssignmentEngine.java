@@ -0,0 +1,231 @@
+package planning;
+
+import interfaces.CargoCarrier;
+import vehicles.CargoShip;
+import vehicles.Vehicle;
+import vehicles.VehicleSpec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Packs shipments onto the fleet's cargo carriers so that the fuel burned by the resulting routes
+// is as low as possible. A carrier's route is as long as its farthest shipment and is driven at
+// the efficiency its spec gives for the final load, so fuel = maxDistance / efficiencyAt(load).
+// Sailing ships burn nothing and are filled first by construction.
+//
+// Greedy insertion on marginal fuel (longest shipments first) builds the plan, then a few
+// relocate passes move single shipments wherever that lowers the total. Large inputs are split
+// into independent groups (carriers and shipments dealt round-robin) that are solved in parallel;
+// whatever a group cannot place is retried against every carrier at the end.
+public class CargoAssignmentEngine {
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int MIN_GROUP_SHIPMENTS = 1024;
+    private static final double EPS = 1e-9;
+
+    private final int parallelism;
+    private final int improvementPasses;
+
+    public CargoAssignmentEngine() {
+        this(Runtime.getRuntime().availableProcessors(), 2);
+    }
+
+    public CargoAssignmentEngine(int parallelism, int improvementPasses) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        if (improvementPasses < 0) throw new IllegalArgumentException("improvementPasses must be >= 0");
+        this.parallelism = parallelism;
+        this.improvementPasses = improvementPasses;
+    }
+
+    public CargoPlan assign(List<Shipment> shipments, Collection<? extends Vehicle> vehicles) {
+        List<Vehicle> carriers = new ArrayList<>();
+        List<Route> routes = new ArrayList<>();
+        for (Vehicle v : vehicles) {
+            if (!(v instanceof CargoCarrier cc)) continue;
+            double free = cc.getCargoCapacity() - cc.getCurrentCargo();
+            if (free <= 0) continue;
+            carriers.add(v);
+            routes.add(new Route(routes.size(), v, cc.getCurrentCargo(), free));
+        }
+
+        int n = shipments.size();
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+
+        // Longest first: once a carrier is committed to a long route, shorter shipments ride
+        // along for only the efficiency penalty of the extra weight.
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) boxed[i] = i;
+        Arrays.sort(boxed, Comparator
+                .comparingDouble((Integer i) -> -shipments.get(i).getDistance())
+                .thenComparingDouble(i -> -shipments.get(i).getWeight()));
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = boxed[i];
+
+        int groupCount = 1;
+        if (n >= PARALLEL_THRESHOLD) {
+            groupCount = Math.min(parallelism, Math.min(routes.size(), n / MIN_GROUP_SHIPMENTS));
+            groupCount = Math.max(1, groupCount);
+        }
+
+        if (groupCount == 1) {
+            solve(routes, order, shipments, assignment);
+        } else {
+            List<Route> byFree = new ArrayList<>(routes);
+            byFree.sort(Comparator.comparingDouble((Route r) -> -r.free));
+            List<List<Route>> groupRoutes = new ArrayList<>();
+            int[][] groupOrder = new int[groupCount][];
+            for (int g = 0; g < groupCount; g++) {
+                groupRoutes.add(new ArrayList<>());
+                groupOrder[g] = new int[(n - g + groupCount - 1) / groupCount];
+            }
+            for (int i = 0; i < byFree.size(); i++) groupRoutes.get(i % groupCount).add(byFree.get(i));
+            for (int i = 0; i < n; i++) groupOrder[i % groupCount][i / groupCount] = order[i];
+
+            final int[] result = assignment;
+            IntStream.range(0, groupCount).parallel()
+                    .forEach(g -> solve(groupRoutes.get(g), groupOrder[g], shipments, result));
+
+            int left = 0;
+            for (int s : order) if (assignment[s] < 0) left++;
+            if (left > 0) {
+                int[] leftovers = new int[left];
+                int k = 0;
+                for (int s : order) if (assignment[s] < 0) leftovers[k++] = s;
+                insertAll(routes, leftovers, shipments, assignment);
+            }
+        }
+
+        double[] addedLoad = new double[routes.size()];
+        double[] routeDistance = new double[routes.size()];
+        double totalFuel = 0.0;
+        for (Route r : routes) {
+            addedLoad[r.index] = r.load;
+            routeDistance[r.index] = r.distance;
+            totalFuel += r.fuel(r.distance, r.load);
+        }
+        return new CargoPlan(shipments, carriers, assignment, addedLoad, routeDistance, totalFuel);
+    }
+
+    private void solve(List<Route> routes, int[] order, List<Shipment> shipments, int[] assignment) {
+        insertAll(routes, order, shipments, assignment);
+        for (int pass = 0; pass < improvementPasses; pass++) {
+            if (!relocatePass(routes, order, shipments, assignment)) break;
+        }
+    }
+
+    private static void insertAll(List<Route> routes, int[] order, List<Shipment> shipments, int[] assignment) {
+        for (int s : order) {
+            Shipment sh = shipments.get(s);
+            double w = sh.getWeight();
+            double d = sh.getDistance();
+            Route best = null;
+            double bestDelta = Double.POSITIVE_INFINITY;
+            for (Route r : routes) {
+                if (r.load + w > r.free + EPS) continue;
+                double delta = r.fuel(Math.max(r.distance, d), r.load + w) - r.fuel(r.distance, r.load);
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    best = r;
+                }
+            }
+            if (best == null || bestDelta == Double.POSITIVE_INFINITY) continue;
+            best.add(s, w, d);
+            assignment[s] = best.index;
+        }
+    }
+
+    // Moves single shipments to another carrier when that strictly lowers total fuel
+    private static boolean relocatePass(List<Route> routes, int[] order, List<Shipment> shipments, int[] assignment) {
+        int maxIndex = -1;
+        for (Route r : routes) maxIndex = Math.max(maxIndex, r.index);
+        Route[] byIndex = new Route[maxIndex + 1];
+        for (Route r : routes) byIndex[r.index] = r;
+
+        boolean improved = false;
+        for (int s : order) {
+            int from = assignment[s];
+            if (from < 0 || from >= byIndex.length || byIndex[from] == null) continue;
+            Route a = byIndex[from];
+            Shipment sh = shipments.get(s);
+            double w = sh.getWeight();
+            double d = sh.getDistance();
+
+            double distWithout = d < a.distance ? a.distance : a.maxDistanceWithout(s, shipments);
+            double gain = a.fuel(a.distance, a.load) - a.fuel(distWithout, a.load - w);
+
+            Route best = null;
+            double bestCost = gain - EPS;
+            for (Route r : routes) {
+                if (r == a || r.load + w > r.free + EPS) continue;
+                double cost = r.fuel(Math.max(r.distance, d), r.load + w) - r.fuel(r.distance, r.load);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = r;
+                }
+            }
+            if (best == null) continue;
+            a.remove(s, w, distWithout);
+            best.add(s, w, d);
+            assignment[s] = best.index;
+            improved = true;
+        }
+        return improved;
+    }
+
+    // Planning state for one carrier; only ever touched by the group that owns it
+    private static final class Route {
+        final int index;
+        final VehicleSpec spec;
+        final boolean sail;
+        final double baseCargo;
+        final double free;
+        double load;
+        double distance;
+        int[] items = new int[4];
+        int size;
+
+        Route(int index, Vehicle v, double baseCargo, double free) {
+            this.index = index;
+            this.spec = v.getSpec();
+            this.sail = v instanceof CargoShip ship && ship.hasSail();
+            this.baseCargo = baseCargo;
+            this.free = free;
+        }
+
+        double fuel(double dist, double added) {
+            if (dist <= 0 || sail) return 0.0;
+            double eff = spec.efficiencyAt(baseCargo + added);
+            return eff > 0 ? dist / eff : Double.POSITIVE_INFINITY;
+        }
+
+        void add(int s, double w, double d) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = s;
+            load += w;
+            if (d > distance) distance = d;
+        }
+
+        void remove(int s, double w, double newDistance) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == s) {
+                    items[i] = items[--size];
+                    break;
+                }
+            }
+            load = size == 0 ? 0.0 : load - w;
+            distance = size == 0 ? 0.0 : newDistance;
+        }
+
+        double maxDistanceWithout(int s, List<Shipment> shipments) {
+            double max = 0.0;
+            for (int i = 0; i < size; i++) {
+                if (items[i] != s) max = Math.max(max, shipments.get(items[i]).getDistance());
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package planning;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import interfaces.CargoCarrier;
+import vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Result of CargoAssignmentEngine.assign(): which carrier takes each shipment, and the fuel the
+// plan is expected to burn. Nothing is loaded until apply() is called.
+public class CargoPlan {
+    private final List<Shipment> shipments;
+    private final List<Vehicle> carriers;
+    private final int[] assignment;
+    private final double[] addedLoad;
+    private final double[] routeDistance;
+    private final double totalFuel;
+
+    CargoPlan(List<Shipment> shipments, List<Vehicle> carriers, int[] assignment,
+              double[] addedLoad, double[] routeDistance, double totalFuel) {
+        this.shipments = shipments;
+        this.carriers = carriers;
+        this.assignment = assignment;
+        this.addedLoad = addedLoad;
+        this.routeDistance = routeDistance;
+        this.totalFuel = totalFuel;
+    }
+
+    // Carrier for the shipment at the given input position, or null if it could not be placed
+    public Vehicle carrierOf(int shipmentIndex) {
+        int c = assignment[shipmentIndex];
+        return c < 0 ? null : carriers.get(c);
+    }
+
+    public List<Shipment> getUnassigned() {
+        List<Shipment> out = new ArrayList<>();
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] < 0) out.add(shipments.get(i));
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    public double getAddedLoad(Vehicle carrier) {
+        int c = carriers.indexOf(carrier);
+        return c < 0 ? 0.0 : addedLoad[c];
+    }
+
+    public double getRouteDistance(Vehicle carrier) {
+        int c = carriers.indexOf(carrier);
+        return c < 0 ? 0.0 : routeDistance[c];
+    }
+
+    public double getTotalFuel() {
+        return totalFuel;
+    }
+
+    public int getCarriersUsed() {
+        int n = 0;
+        for (double l : addedLoad) if (l > 0) n++;
+        return n;
+    }
+
+    // Loads every carrier with its planned cargo (one loadCargo call per carrier). All or nothing:
+    // every carrier is checked against its current load first, and if a load still fails the
+    // carriers already loaded are unloaded again.
+    public void apply() throws OverloadException {
+        for (int c = 0; c < carriers.size(); c++) {
+            CargoCarrier carrier = (CargoCarrier) carriers.get(c);
+            if (addedLoad[c] > 0 && carrier.getCurrentCargo() + addedLoad[c] > carrier.getCargoCapacity()) {
+                throw new OverloadException("Plan no longer fits " + carriers.get(c).getId());
+            }
+        }
+        int c = 0;
+        try {
+            for (; c < carriers.size(); c++) {
+                if (addedLoad[c] > 0) ((CargoCarrier) carriers.get(c)).loadCargo(addedLoad[c]);
+            }
+        } catch (OverloadException | RuntimeException e) {
+            for (int done = 0; done < c; done++) {
+                if (!(addedLoad[done] > 0)) continue;
+                try {
+                    ((CargoCarrier) carriers.get(done)).unloadCargo(addedLoad[done]);
+                } catch (InvalidOperationException | RuntimeException undo) {
+                    e.addSuppressed(undo);
+                }
+            }
+            throw e;
+        }
+    }
+}
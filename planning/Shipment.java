@@ -0,0 +1,27 @@
+package planning;
+
+public final class Shipment {
+    private final String id;
+    private final double weight;    // kg
+    private final double distance;  // km
+
+    public Shipment(String id, double weight, double distance) {
+        if (weight <= 0) throw new IllegalArgumentException("Shipment weight must be > 0");
+        if (distance < 0) throw new IllegalArgumentException("Shipment distance cannot be negative");
+        this.id = id;
+        this.weight = weight;
+        this.distance = distance;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+}
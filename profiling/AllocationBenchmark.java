@@ -0,0 +1,118 @@
+package profiling;
+
+import exceptions.InvalidOperationException;
+import fleet.FleetManager;
+import fleet.FleetStats;
+import interfaces.FuelConsumable;
+import vehicles.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures bytes allocated per operation on the steady-state journey, fuel and report paths using
+// the per-thread allocation counter, and exits with status 1 if any of them allocates. Every path
+// is warmed up first so the figures are for JIT-compiled code.
+// Usage: java profiling.AllocationBenchmark [vehicles] [iterations]
+public class AllocationBenchmark {
+    private interface Op {
+        void run(int i) throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static long sink;
+
+    public static void main(String[] args) throws Exception {
+        int vehicleCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.out.println("Per-thread allocation counters are not supported by this JVM");
+            System.exit(2);
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        Vehicle.setLoggingEnabled(false);
+
+        FleetManager manager = new FleetManager();
+        Vehicle[] vehicles = new Vehicle[vehicleCount];
+        for (int i = 0; i < vehicleCount; i++) {
+            vehicles[i] = create(i);
+            manager.addVehicle(vehicles[i]);
+        }
+        Vehicle[] dry = {create(0), create(1), create(2), create(3)};
+        List<Vehicle> buffer = new ArrayList<>(vehicleCount);
+        FleetStats stats = new FleetStats();
+        int reportIterations = Math.max(1, iterations / vehicleCount);
+
+        boolean clean = true;
+        clean &= measure("tryMove", iterations, i -> {
+            Vehicle v = vehicles[i % vehicles.length];
+            if (v.tryMove(1.0) == MoveResult.INSUFFICIENT_FUEL) ((FuelConsumable) v).refuel(1000.0);
+        });
+        clean &= measure("tryMove (no fuel)", iterations, i -> {
+            if (dry[i & 3].tryMove(100.0) == MoveResult.MOVED) sink++;
+        });
+        clean &= measure("move", iterations, i -> {
+            Vehicle v = vehicles[i % vehicles.length];
+            if (v instanceof FuelConsumable f && f.getFuelLevel() < 10.0) f.refuel(1000.0);
+            v.move(1.0);
+        });
+        clean &= measure("refuel + consumeFuel", iterations, i -> {
+            if (vehicles[i % vehicles.length] instanceof FuelConsumable f) {
+                f.refuel(1.0);
+                f.consumeFuel(0.5);
+            }
+        });
+        clean &= measure("estimateJourneyTime", iterations, i -> {
+            sink += (long) vehicles[i % vehicles.length].estimateJourneyTime(250.0);
+        });
+        clean &= measure("searchByType(into)", reportIterations, i -> {
+            buffer.clear();
+            sink += manager.searchByType(LandVehicle.class, buffer);
+        });
+        clean &= measure("getVehiclesNeedingMaintenance(into)", reportIterations, i -> {
+            buffer.clear();
+            sink += manager.getVehiclesNeedingMaintenance(buffer);
+        });
+        clean &= measure("collectStats(into)", reportIterations, i -> {
+            sink += manager.collectStats(stats).getTotalVehicles();
+        });
+        // Fleet-wide journeys with the wear ranking listening (the spatial grid is left out: it allocates
+        // whenever a vehicle enters a new cell); the extra vehicles are never refuelled, so failed moves
+        // are on the measured path too
+        manager.wearRanking();
+        for (int k = 0; k < 4; k++) manager.addVehicle(create(vehicleCount + k));
+        clean &= measure("startAllJourneys (listeners)", reportIterations, i -> {
+            for (Vehicle v : vehicles) {
+                if (v instanceof FuelConsumable f && f.getFuelLevel() < 10.0) f.refuel(1000.0);
+            }
+            manager.startAllJourneys(1.0);
+        });
+
+        System.out.println(clean ? "No allocation on measured paths" : "ALLOCATION DETECTED");
+        System.exit(clean ? 0 : 1);
+    }
+
+    private static Vehicle create(int i) throws InvalidOperationException {
+        return switch (i % 5) {
+            case 0 -> new Car("C" + i, "Bench", 120, 4);
+            case 1 -> new Truck("T" + i, "Bench", 90, 6);
+            case 2 -> new Bus("B" + i, "Bench", 80, 6);
+            case 3 -> new Airplane("A" + i, "Bench", 900, 11000);
+            default -> new CargoShip("S" + i, "Bench", 30, false);
+        };
+    }
+
+    private static boolean measure(String name, int iterations, Op op) throws Exception {
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < iterations; i++) op.run(i);
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) op.run(i);
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        double perOp = (double) allocated / iterations;
+        System.out.printf("%-38s %10.3f bytes/op%n", name, perOp);
+        return allocated == 0;
+    }
+}
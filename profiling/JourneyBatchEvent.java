@@ -0,0 +1,43 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fleet.JourneyBatch")
+@Label("Journey Batch")
+@Category({"Fleet", "Journeys"})
+@Description("One FleetManager.startAllJourneys() call")
+public class JourneyBatchEvent extends Event {
+    @Label("Distance (km)")
+    double distance;
+
+    @Label("Vehicles")
+    int vehicles;
+
+    @Label("Failed Moves")
+    int failures;
+
+    // Same disabled stand-in as VehicleMoveEvent, so a batch costs no allocation while not recorded
+    private static final JourneyBatchEvent DISABLED = new JourneyBatchEvent();
+
+    public static JourneyBatchEvent start() {
+        if (!DISABLED.isEnabled()) return DISABLED;
+        JourneyBatchEvent event = new JourneyBatchEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(double distance, int vehicles, int failures) {
+        if (this == DISABLED) return;
+        end();
+        if (shouldCommit()) {
+            this.distance = distance;
+            this.vehicles = vehicles;
+            this.failures = failures;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fleet.Maintenance")
+@Label("Fleet Maintenance")
+@Category({"Fleet", "Maintenance"})
+@Description("One FleetManager.maintainAll() call")
+public class MaintenanceEvent extends Event {
+    @Label("Vehicles Checked")
+    public int vehiclesChecked;
+
+    @Label("Vehicles Serviced")
+    public int vehiclesServiced;
+}
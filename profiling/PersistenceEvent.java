@@ -0,0 +1,25 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("fleet.Persistence")
+@Label("Fleet Persistence")
+@Category({"Fleet", "Persistence"})
+@Description("A fleet save or load")
+public class PersistenceEvent extends Event {
+    @Label("Operation")
+    public String operation;
+
+    @Label("File")
+    public String file;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,49 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import vehicles.Vehicle;
+
+@Name("fleet.VehicleMove")
+@Label("Vehicle Move")
+@Category({"Fleet", "Journeys"})
+@Description("A completed Vehicle.move() call")
+public class VehicleMoveEvent extends Event {
+    @Label("Vehicle ID")
+    String vehicleId;
+
+    @Label("Vehicle Type")
+    String vehicleType;
+
+    @Label("Distance (km)")
+    double distance;
+
+    @Label("Fuel Used (l)")
+    double fuelUsed;
+
+    // Shared stand-in handed out while no recording wants this event, so move() doesn't allocate an
+    // event per call on the hope that escape analysis removes it; also serves as the isEnabled() probe
+    private static final VehicleMoveEvent DISABLED = new VehicleMoveEvent();
+
+    public static VehicleMoveEvent start() {
+        if (!DISABLED.isEnabled()) return DISABLED;
+        VehicleMoveEvent event = new VehicleMoveEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(Vehicle v, double distance, double fuelUsed) {
+        if (this == DISABLED) return;
+        end();
+        if (shouldCommit()) {
+            this.vehicleId = v.getId();
+            this.vehicleType = v.getClass().getSimpleName();
+            this.distance = distance;
+            this.fuelUsed = fuelUsed;
+            commit();
+        }
+    }
+}
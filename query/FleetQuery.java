@@ -0,0 +1,79 @@
+package query;
+
+import vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Lazy query over a fleet's per-class partitions. Partitions whose class cannot satisfy the
+// type or the predicate are never scanned; a predicate that pins an ID is answered from the ID
+// index when one is given; large scans run as parallel streams. Results are live views, so the
+// fleet must not be modified while a stream is being consumed.
+public class FleetQuery<T extends Vehicle> {
+    public static final int PARALLEL_THRESHOLD = 10_000;
+
+    private final Class<T> type;
+    private final Map<Class<? extends Vehicle>, ? extends Collection<Vehicle>> partitions;
+    private final Map<String, ? extends Vehicle> ids;
+    private VehiclePredicate predicate = VehiclePredicates.all();
+    private boolean parallelAllowed = true;
+
+    public FleetQuery(Class<T> type, Map<Class<? extends Vehicle>, ? extends Collection<Vehicle>> partitions) {
+        this(type, partitions, null);
+    }
+
+    public FleetQuery(Class<T> type, Map<Class<? extends Vehicle>, ? extends Collection<Vehicle>> partitions,
+                      Map<String, ? extends Vehicle> ids) {
+        this.type = type;
+        this.partitions = partitions;
+        this.ids = ids;
+    }
+
+    public FleetQuery<T> where(VehiclePredicate p) {
+        predicate = predicate.and(p);
+        return this;
+    }
+
+    public FleetQuery<T> sequential() {
+        parallelAllowed = false;
+        return this;
+    }
+
+    public Stream<T> stream() {
+        VehiclePredicate p = predicate;
+        String id = ids == null ? null : p.requiredId();
+        if (id != null) {
+            Vehicle v = ids.get(id);
+            if (v == null || !type.isInstance(v) || !p.mayMatch(v.getClass()) || !p.test(v)) return Stream.empty();
+            return Stream.of(type.cast(v));
+        }
+        List<Collection<Vehicle>> candidates = new ArrayList<>();
+        long size = 0;
+        for (Map.Entry<Class<? extends Vehicle>, ? extends Collection<Vehicle>> e : partitions.entrySet()) {
+            if (!type.isAssignableFrom(e.getKey()) || !predicate.mayMatch(e.getKey())) continue;
+            if (e.getValue().isEmpty()) continue;
+            candidates.add(e.getValue());
+            size += e.getValue().size();
+        }
+        Stream<Vehicle> s = Stream.empty();
+        for (Collection<Vehicle> c : candidates) s = Stream.concat(s, c.stream());
+        if (parallelAllowed && size >= PARALLEL_THRESHOLD) s = s.parallel();
+        return s.filter(p::test).map(type::cast);
+    }
+
+    public long count() {
+        return stream().count();
+    }
+
+    public Optional<T> findAny() {
+        return stream().findAny();
+    }
+
+    public List<T> list() {
+        return stream().toList();
+    }
+}
@@ -0,0 +1,55 @@
+package query;
+
+import vehicles.Vehicle;
+
+// A filter over vehicles that can also tell, from the class alone, whether any instance could
+// match. FleetQuery uses that to skip whole type partitions before scanning them, and uses
+// requiredId() to answer ID lookups from the fleet's ID index instead of scanning at all.
+public interface VehiclePredicate {
+    boolean test(Vehicle v);
+
+    default boolean mayMatch(Class<? extends Vehicle> type) {
+        return true;
+    }
+
+    // The one ID a vehicle must have to match, or null if the predicate does not pin one
+    default String requiredId() {
+        return null;
+    }
+
+    default VehiclePredicate and(VehiclePredicate other) {
+        VehiclePredicate self = this;
+        return new VehiclePredicate() {
+            public boolean test(Vehicle v) {
+                return self.test(v) && other.test(v);
+            }
+
+            public boolean mayMatch(Class<? extends Vehicle> type) {
+                return self.mayMatch(type) && other.mayMatch(type);
+            }
+
+            public String requiredId() {
+                String id = self.requiredId();
+                return id != null ? id : other.requiredId();
+            }
+        };
+    }
+
+    default VehiclePredicate or(VehiclePredicate other) {
+        VehiclePredicate self = this;
+        return new VehiclePredicate() {
+            public boolean test(Vehicle v) {
+                return self.test(v) || other.test(v);
+            }
+
+            public boolean mayMatch(Class<? extends Vehicle> type) {
+                return self.mayMatch(type) || other.mayMatch(type);
+            }
+        };
+    }
+
+    default VehiclePredicate negate() {
+        VehiclePredicate self = this;
+        return v -> !self.test(v);
+    }
+}
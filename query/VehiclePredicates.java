@@ -0,0 +1,116 @@
+package query;
+
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+import java.util.function.Predicate;
+
+public final class VehiclePredicates {
+    private VehiclePredicates() {
+    }
+
+    public static VehiclePredicate all() {
+        return v -> true;
+    }
+
+    public static VehiclePredicate of(Predicate<? super Vehicle> p) {
+        return p::test;
+    }
+
+    // Restricts to instances of the given class or interface (and prunes other partitions)
+    public static VehiclePredicate instanceOf(Class<?> capability) {
+        return new VehiclePredicate() {
+            public boolean test(Vehicle v) {
+                return capability.isInstance(v);
+            }
+
+            public boolean mayMatch(Class<? extends Vehicle> type) {
+                return capability.isAssignableFrom(type);
+            }
+        };
+    }
+
+    public static VehiclePredicate idEquals(String id) {
+        return new VehiclePredicate() {
+            public boolean test(Vehicle v) {
+                return v.getId().equals(id);
+            }
+
+            public String requiredId() {
+                return id;
+            }
+        };
+    }
+
+    public static VehiclePredicate modelEquals(String model) {
+        return v -> v.getModel().equals(model);
+    }
+
+    public static VehiclePredicate maxSpeedAbove(double speed) {
+        return v -> v.getMaxSpeed() > speed;
+    }
+
+    public static VehiclePredicate mileageAbove(double km) {
+        return v -> v.getCurrentMileage() > km;
+    }
+
+    public static VehiclePredicate mileageBelow(double km) {
+        return v -> v.getCurrentMileage() < km;
+    }
+
+    public static VehiclePredicate efficiencyAbove(double kmPerLitre) {
+        return v -> v.calculateFuelEfficiency() > kmPerLitre;
+    }
+
+    public static VehiclePredicate fuelBelow(double litres) {
+        return instanceOf(FuelConsumable.class).and(v -> ((FuelConsumable) v).getFuelLevel() < litres);
+    }
+
+    public static VehiclePredicate fuelAbove(double litres) {
+        return instanceOf(FuelConsumable.class).and(v -> ((FuelConsumable) v).getFuelLevel() > litres);
+    }
+
+    public static VehiclePredicate cargoAbove(double kg) {
+        return instanceOf(CargoCarrier.class).and(v -> ((CargoCarrier) v).getCurrentCargo() > kg);
+    }
+
+    // fraction of cargo capacity in use, e.g. 0.5 for "more than half full"
+    public static VehiclePredicate cargoLoadAbove(double fraction) {
+        return instanceOf(CargoCarrier.class).and(v -> {
+            CargoCarrier c = (CargoCarrier) v;
+            return c.getCurrentCargo() > fraction * c.getCargoCapacity();
+        });
+    }
+
+    public static VehiclePredicate cargoLoadBelow(double fraction) {
+        return instanceOf(CargoCarrier.class).and(v -> {
+            CargoCarrier c = (CargoCarrier) v;
+            return c.getCurrentCargo() < fraction * c.getCargoCapacity();
+        });
+    }
+
+    public static VehiclePredicate freeCargoAtLeast(double kg) {
+        return instanceOf(CargoCarrier.class).and(v -> {
+            CargoCarrier c = (CargoCarrier) v;
+            return c.getCargoCapacity() - c.getCurrentCargo() >= kg;
+        });
+    }
+
+    public static VehiclePredicate passengersAbove(int count) {
+        return instanceOf(PassengerCarrier.class).and(v -> ((PassengerCarrier) v).getCurrentPassengers() > count);
+    }
+
+    public static VehiclePredicate freeSeatsAtLeast(int seats) {
+        return instanceOf(PassengerCarrier.class).and(v -> {
+            PassengerCarrier p = (PassengerCarrier) v;
+            return p.getPassengerCapacity() - p.getCurrentPassengers() >= seats;
+        });
+    }
+
+    public static VehiclePredicate needsMaintenance() {
+        return instanceOf(Maintainable.class).and(v -> ((Maintainable) v).needsMaintenance());
+    }
+}
@@ -0,0 +1,66 @@
+package report;
+
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+// Two CSV tables separated by a blank line: one row per vehicle, then one row per type
+public class CsvReportFormatter implements ReportFormatter {
+    @Override
+    public void begin(StringBuilder out) {
+        out.append("type,id,model,mileage,fuel,efficiency,cargo,cargoCapacity,passengers,passengerCapacity,needsMaintenance\n");
+    }
+
+    @Override
+    public void vehicle(Vehicle v, StringBuilder out) {
+        out.append(v.getClass().getSimpleName()).append(',');
+        field(v.getId(), out).append(',');
+        field(v.getModel(), out).append(',');
+        out.append(v.getCurrentMileage()).append(',');
+        if (v instanceof FuelConsumable f) out.append(f.getFuelLevel());
+        out.append(',').append(v.calculateFuelEfficiency()).append(',');
+        if (v instanceof CargoCarrier c) out.append(c.getCurrentCargo()).append(',').append(c.getCargoCapacity());
+        else out.append(',');
+        out.append(',');
+        if (v instanceof PassengerCarrier p) out.append(p.getCurrentPassengers()).append(',').append(p.getPassengerCapacity());
+        else out.append(',');
+        out.append(',').append(v instanceof Maintainable m && m.needsMaintenance()).append('\n');
+    }
+
+    @Override
+    public void beginRollups(StringBuilder out) {
+        out.append("\ntype,count,avgEfficiency,totalMileage,totalFuel,totalCargo,cargoCapacity,totalPassengers,passengerCapacity,needingMaintenance\n");
+    }
+
+    @Override
+    public void rollup(TypeRollup r, StringBuilder out) {
+        out.append(r.getType()).append(',')
+                .append(r.getCount()).append(',')
+                .append(r.getAverageEfficiency()).append(',')
+                .append(r.getTotalMileage()).append(',')
+                .append(r.getTotalFuel()).append(',')
+                .append(r.getTotalCargo()).append(',')
+                .append(r.getCargoCapacity()).append(',')
+                .append(r.getTotalPassengers()).append(',')
+                .append(r.getPassengerCapacity()).append(',')
+                .append(r.getNeedingMaintenance()).append('\n');
+    }
+
+    @Override
+    public void end(StringBuilder out) {
+    }
+
+    // RFC 4180 quoting, applied only when the value needs it
+    private static StringBuilder field(String s, StringBuilder out) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0) return out.append(s);
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') out.append('"');
+            out.append(c);
+        }
+        return out.append('"');
+    }
+}
@@ -0,0 +1,72 @@
+package report;
+
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import util.JsonLine;
+import vehicles.Vehicle;
+
+// One JSON document: {"vehicles":[...],"rollups":[...]}; capacities are omitted for types without them
+public class JsonReportFormatter implements ReportFormatter {
+    private boolean first;
+
+    @Override
+    public void begin(StringBuilder out) {
+        out.append("{\"vehicles\":[");
+        first = true;
+    }
+
+    @Override
+    public void vehicle(Vehicle v, StringBuilder out) {
+        separator(out);
+        out.append("{\"type\":\"").append(v.getClass().getSimpleName()).append('"');
+        out.append(",\"id\":").append(JsonLine.quote(v.getId()));
+        out.append(",\"model\":").append(JsonLine.quote(v.getModel()));
+        out.append(",\"mileage\":").append(v.getCurrentMileage());
+        if (v instanceof FuelConsumable f) out.append(",\"fuel\":").append(f.getFuelLevel());
+        out.append(",\"efficiency\":").append(v.calculateFuelEfficiency());
+        if (v instanceof CargoCarrier c) {
+            out.append(",\"cargo\":").append(c.getCurrentCargo());
+            out.append(",\"cargoCapacity\":").append(c.getCargoCapacity());
+        }
+        if (v instanceof PassengerCarrier p) {
+            out.append(",\"passengers\":").append(p.getCurrentPassengers());
+            out.append(",\"passengerCapacity\":").append(p.getPassengerCapacity());
+        }
+        out.append(",\"needsMaintenance\":").append(v instanceof Maintainable m && m.needsMaintenance()).append('}');
+    }
+
+    @Override
+    public void beginRollups(StringBuilder out) {
+        out.append("],\"rollups\":[");
+        first = true;
+    }
+
+    @Override
+    public void rollup(TypeRollup r, StringBuilder out) {
+        separator(out);
+        out.append("{\"type\":\"").append(r.getType()).append('"')
+                .append(",\"count\":").append(r.getCount())
+                .append(",\"avgEfficiency\":").append(r.getAverageEfficiency())
+                .append(",\"totalMileage\":").append(r.getTotalMileage())
+                .append(",\"totalFuel\":").append(r.getTotalFuel())
+                .append(",\"totalCargo\":").append(r.getTotalCargo())
+                .append(",\"cargoCapacity\":").append(r.getCargoCapacity())
+                .append(",\"totalPassengers\":").append(r.getTotalPassengers())
+                .append(",\"passengerCapacity\":").append(r.getPassengerCapacity())
+                .append(",\"needingMaintenance\":").append(r.getNeedingMaintenance()).append('}');
+    }
+
+    @Override
+    public void end(StringBuilder out) {
+        out.append("]}\n");
+    }
+
+    // One object per line keeps the document greppable and lets a reader stream it line by line
+    private void separator(StringBuilder out) {
+        if (!first) out.append(',');
+        first = false;
+        out.append('\n');
+    }
+}
@@ -0,0 +1,17 @@
+package report;
+
+import vehicles.Vehicle;
+
+// Renders one report section at a time into a buffer that ReportWriter drains to the output in chunks,
+// so a formatter never sees (or holds) more than the current row
+public interface ReportFormatter {
+    void begin(StringBuilder out);
+
+    void vehicle(Vehicle v, StringBuilder out);
+
+    void beginRollups(StringBuilder out);
+
+    void rollup(TypeRollup r, StringBuilder out);
+
+    void end(StringBuilder out);
+}
@@ -0,0 +1,123 @@
+package report;
+
+import vehicles.Vehicle;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RecursiveTask;
+
+// Streams a fleet report straight to a Writer: rows are formatted into one reused buffer that is
+// drained every chunkSize chars, so memory stays flat however large the fleet. The per-type
+// rollups are computed on the fork-join pool while the rows are being written.
+public class ReportWriter {
+    private static final int DEFAULT_CHUNK = 1 << 16;
+    // Below this a rollup chunk is summed sequentially rather than split further
+    private static final int ROLLUP_SPLIT = 1 << 13;
+
+    private final ReportFormatter formatter;
+    private final int chunkSize;
+
+    public ReportWriter(ReportFormatter formatter) {
+        this(formatter, DEFAULT_CHUNK);
+    }
+
+    public ReportWriter(ReportFormatter formatter, int chunkSize) {
+        if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+        this.formatter = formatter;
+        this.chunkSize = chunkSize;
+    }
+
+    public static ReportFormatter formatter(String name) {
+        return switch (name.toLowerCase()) {
+            case "csv" -> new CsvReportFormatter();
+            case "json" -> new JsonReportFormatter();
+            default -> throw new IllegalArgumentException("Unknown report format: " + name);
+        };
+    }
+
+    // The caller owns the stream; it is flushed but not closed
+    public int write(Vehicle[] vehicles, OutputStream out) throws IOException {
+        Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        int rows = write(vehicles, w);
+        w.flush();
+        return rows;
+    }
+
+    // Returns the number of vehicle rows written. The array is read, never modified, so callers
+    // pass a snapshot (e.g. fleet.toArray()) rather than a live list.
+    public int write(Vehicle[] vehicles, Writer out) throws IOException {
+        CompletableFuture<Map<String, TypeRollup>> rollups = CompletableFuture.supplyAsync(
+                () -> new RollupTask(vehicles, 0, vehicles.length).invoke());
+        StringBuilder buf = new StringBuilder(chunkSize + 512);
+        char[] chunk = new char[chunkSize + 512];
+        formatter.begin(buf);
+        int rows = 0;
+        for (Vehicle v : vehicles) {
+            formatter.vehicle(v, buf);
+            rows++;
+            if (buf.length() >= chunkSize) chunk = drain(buf, chunk, out);
+        }
+        Map<String, TypeRollup> byType;
+        try {
+            byType = rollups.join();
+        } catch (CompletionException e) {
+            throw new IOException("Rollup failed: " + e.getCause(), e.getCause());
+        }
+        formatter.beginRollups(buf);
+        for (TypeRollup r : new TreeMap<>(byType).values()) formatter.rollup(r, buf);
+        formatter.end(buf);
+        drain(buf, chunk, out);
+        out.flush();
+        return rows;
+    }
+
+    // Copies through a reused char[]; Writer.append(CharSequence) would materialise a String per chunk
+    private static char[] drain(StringBuilder buf, char[] chunk, Writer out) throws IOException {
+        int n = buf.length();
+        if (n > chunk.length) chunk = new char[n];
+        buf.getChars(0, n, chunk, 0);
+        out.write(chunk, 0, n);
+        buf.setLength(0);
+        return chunk;
+    }
+
+    @SuppressWarnings("serial")
+    private static class RollupTask extends RecursiveTask<Map<String, TypeRollup>> {
+        private final Vehicle[] vehicles;
+        private final int from;
+        private final int to;
+
+        RollupTask(Vehicle[] vehicles, int from, int to) {
+            this.vehicles = vehicles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, TypeRollup> compute() {
+            if (to - from <= ROLLUP_SPLIT) {
+                Map<String, TypeRollup> out = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    Vehicle v = vehicles[i];
+                    out.computeIfAbsent(v.getClass().getSimpleName(), TypeRollup::new).add(v);
+                }
+                return out;
+            }
+            int mid = (from + to) >>> 1;
+            RollupTask left = new RollupTask(vehicles, from, mid);
+            left.fork();
+            Map<String, TypeRollup> right = new RollupTask(vehicles, mid, to).compute();
+            Map<String, TypeRollup> merged = left.join();
+            for (TypeRollup r : right.values()) {
+                TypeRollup into = merged.putIfAbsent(r.getType(), r);
+                if (into != null) into.merge(r);
+            }
+            return merged;
+        }
+    }
+}
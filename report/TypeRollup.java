@@ -0,0 +1,99 @@
+package report;
+
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import interfaces.PassengerCarrier;
+import vehicles.Vehicle;
+
+// Per-type totals for the rollup section; built per chunk on the fork-join pool and merged
+public class TypeRollup {
+    private final String type;
+    private int count;
+    private double efficiencySum;
+    private int efficiencyCount;
+    private double mileage;
+    private double fuel;
+    private double cargo;
+    private double cargoCapacity;
+    private long passengers;
+    private long passengerCapacity;
+    private int needingMaintenance;
+
+    public TypeRollup(String type) {
+        this.type = type;
+    }
+
+    public void add(Vehicle v) {
+        count++;
+        double eff = v.calculateFuelEfficiency();
+        if (eff > 0) {
+            efficiencySum += eff;
+            efficiencyCount++;
+        }
+        mileage += v.getCurrentMileage();
+        if (v instanceof FuelConsumable f) fuel += f.getFuelLevel();
+        if (v instanceof CargoCarrier c) {
+            cargo += c.getCurrentCargo();
+            cargoCapacity += c.getCargoCapacity();
+        }
+        if (v instanceof PassengerCarrier p) {
+            passengers += p.getCurrentPassengers();
+            passengerCapacity += p.getPassengerCapacity();
+        }
+        if (v instanceof Maintainable m && m.needsMaintenance()) needingMaintenance++;
+    }
+
+    public void merge(TypeRollup other) {
+        count += other.count;
+        efficiencySum += other.efficiencySum;
+        efficiencyCount += other.efficiencyCount;
+        mileage += other.mileage;
+        fuel += other.fuel;
+        cargo += other.cargo;
+        cargoCapacity += other.cargoCapacity;
+        passengers += other.passengers;
+        passengerCapacity += other.passengerCapacity;
+        needingMaintenance += other.needingMaintenance;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getAverageEfficiency() {
+        return efficiencyCount == 0 ? 0 : efficiencySum / efficiencyCount;
+    }
+
+    public double getTotalMileage() {
+        return mileage;
+    }
+
+    public double getTotalFuel() {
+        return fuel;
+    }
+
+    public double getTotalCargo() {
+        return cargo;
+    }
+
+    public double getCargoCapacity() {
+        return cargoCapacity;
+    }
+
+    public long getTotalPassengers() {
+        return passengers;
+    }
+
+    public long getPassengerCapacity() {
+        return passengerCapacity;
+    }
+
+    public int getNeedingMaintenance() {
+        return needingMaintenance;
+    }
+}
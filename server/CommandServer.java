@@ -0,0 +1,202 @@
+package server;
+
+import commands.CommandProcessor;
+import fleet.FleetManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+// Single-threaded NIO server for the CommandProcessor line protocol. Every command runs on the
+// selector thread, so the FleetManager is never touched concurrently. Clients may pipeline: all
+// complete lines from one read are executed as a batch and their replies written together. A
+// client whose unsent replies exceed MAX_PENDING_OUTPUT is not read from until it catches up.
+public class CommandServer implements Closeable, Runnable {
+    private static final int READ_BUFFER = 8192;
+    private static final int MAX_LINE = 64 * 1024;
+    private static final int MAX_PENDING_OUTPUT = 1 << 20;
+
+    private final CommandProcessor processor;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final StringBuilder replies = new StringBuilder();
+    private volatile boolean running = true;
+
+    public CommandServer(FleetManager manager, int port) throws IOException {
+        this.processor = new CommandProcessor(manager);
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        if (!key.isValid()) continue;
+                        if (key.isAcceptable()) accept();
+                        if (key.isValid() && key.isReadable()) read(key);
+                        if (key.isValid() && key.isWritable()) write(key);
+                    } catch (IOException e) {
+                        closeClient(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) System.out.println("Command server error: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) closeClient(key);
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel ch;
+        while ((ch = server.accept()) != null) {
+            ch.configureBlocking(false);
+            ch.socket().setTcpNoDelay(true);
+            ch.register(selector, SelectionKey.OP_READ, new Client());
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel ch = (SocketChannel) key.channel();
+        Client c = (Client) key.attachment();
+        int n = ch.read(c.in);
+        if (n < 0) {
+            // half-close: still deliver replies to what was already sent
+            runLines(c, true);
+            if (c.out.position() == 0) closeClient(key);
+            else key.interestOps(SelectionKey.OP_WRITE);
+            c.closing = true;
+            return;
+        }
+        runLines(c, false);
+        if (c.in.position() == c.in.capacity()) {
+            if (c.in.capacity() >= MAX_LINE) {
+                c.appendOut("ERR line too long\n");
+                c.in.clear();
+                c.discarding = true;
+            } else {
+                c.in = grow(c.in, c.in.capacity() * 2);
+            }
+        }
+        write(key);
+    }
+
+    private void runLines(Client c, boolean eof) {
+        ByteBuffer in = c.in;
+        in.flip();
+        replies.setLength(0);
+        int lineStart = in.position();
+        if (c.discarding) {
+            // rest of a line already rejected as too long
+            while (lineStart < in.limit() && in.get(lineStart) != '\n') lineStart++;
+            if (lineStart < in.limit()) {
+                c.discarding = false;
+                lineStart++;
+            } else if (!eof) {
+                in.position(lineStart);
+                in.compact();
+                return;
+            }
+        }
+        for (int i = lineStart; i < in.limit(); i++) {
+            if (in.get(i) == '\n') {
+                processor.execute(decode(in, lineStart, i), replies);
+                lineStart = i + 1;
+            }
+        }
+        if (eof && lineStart < in.limit()) {
+            processor.execute(decode(in, lineStart, in.limit()), replies);
+            lineStart = in.limit();
+        }
+        in.position(lineStart);
+        in.compact();
+        if (replies.length() > 0) c.appendOut(replies.toString());
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Client c = (Client) key.attachment();
+        SocketChannel ch = (SocketChannel) key.channel();
+        c.out.flip();
+        ch.write(c.out);
+        c.out.compact();
+        boolean pending = c.out.position() > 0;
+        if (c.closing) {
+            if (!pending) closeClient(key);
+            return;
+        }
+        int ops = 0;
+        if (c.out.position() < MAX_PENDING_OUTPUT) ops |= SelectionKey.OP_READ;
+        if (pending) ops |= SelectionKey.OP_WRITE;
+        key.interestOps(ops);
+    }
+
+    private static String decode(ByteBuffer buf, int from, int to) {
+        if (to > from && buf.get(to - 1) == '\r') to--;
+        byte[] bytes = new byte[to - from];
+        buf.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf, int capacity) {
+        ByteBuffer bigger = ByteBuffer.allocate(capacity);
+        buf.flip();
+        bigger.put(buf);
+        return bigger;
+    }
+
+    private void closeClient(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static final class Client {
+        ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+        ByteBuffer out = ByteBuffer.allocate(READ_BUFFER);
+        boolean closing;
+        boolean discarding;
+
+        void appendOut(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (out.remaining() < bytes.length) {
+                out = grow(out, Math.max(out.capacity() * 2, out.position() + bytes.length));
+            }
+            out.put(bytes);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package spatial;
+
+import fleet.FleetManager;
+import interfaces.VehicleListener;
+import query.VehiclePredicate;
+import vehicles.Vehicle;
+import vehicles.VehicleChange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Uniform grid over vehicle positions, kept current from the vehicle change hook (moves,
+// relocations, adds and removes), for "nearest N vehicles that can take this load" style
+// dispatch queries. Each cell keeps its members' coordinates in flat arrays so scans don't
+// chase Vehicle pointers until a candidate is close enough to be worth a predicate check.
+//
+// Pick the cell size near the typical query radius; with ~100 vehicles per cell a k-nearest
+// query touches a handful of cells.
+public class SpatialGridIndex implements VehicleListener {
+    public static final double DEFAULT_CELL_KM = 10.0;
+
+    private final double cellSize;
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Vehicle, Loc> locations = new IdentityHashMap<>();
+
+    public SpatialGridIndex() {
+        this(DEFAULT_CELL_KM);
+    }
+
+    public SpatialGridIndex(double cellSizeKm) {
+        if (!(cellSizeKm > 0)) throw new IllegalArgumentException("Cell size must be positive");
+        this.cellSize = cellSizeKm;
+    }
+
+    // Indexes the manager's current vehicles and follows its changes from now on
+    public synchronized void attach(FleetManager manager) {
+        manager.addVehicleListener(this);
+        for (Vehicle v : manager.getFleet()) place(v);
+    }
+
+    @Override
+    public synchronized void vehicleChanged(Vehicle v, VehicleChange change) {
+        switch (change) {
+            case ADDED, MOVED, RELOCATED -> place(v);
+            case REMOVED -> remove(v);
+            default -> {
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return locations.size();
+    }
+
+    // The k vehicles closest to (x, y) that match the filter, nearest first
+    public synchronized List<Vehicle> nearest(double x, double y, int k, VehiclePredicate filter) {
+        if (k <= 0 || locations.isEmpty()) return Collections.emptyList();
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(b.dist2, a.dist2));
+        int cx = cellOf(x);
+        int cy = cellOf(y);
+        int seen = 0;
+        for (int ring = 0; seen < locations.size(); ring++) {
+            if (best.size() == k) {
+                // Nothing outside this ring can be closer than the ring's inner edge
+                double edge = (ring - 1) * cellSize + Math.min(
+                        Math.min(x - cx * cellSize, (cx + 1) * cellSize - x),
+                        Math.min(y - cy * cellSize, (cy + 1) * cellSize - y));
+                if (edge > 0 && edge * edge >= best.peek().dist2) break;
+            }
+            long side = 2L * ring + 1;
+            if (side * side > 4L * cells.size()) {
+                // Mostly empty rings from here on: visiting the remaining occupied cells is cheaper
+                for (Cell c : cells.values()) {
+                    if (Math.max(Math.abs((long) c.gx - cx), Math.abs((long) c.gy - cy)) >= ring) {
+                        scan(c, x, y, k, filter, best);
+                    }
+                }
+                break;
+            }
+            for (int gx = cx - ring; gx <= cx + ring; gx++) {
+                if (gx == cx - ring || gx == cx + ring) {
+                    for (int gy = cy - ring; gy <= cy + ring; gy++) seen += scan(gx, gy, x, y, k, filter, best);
+                } else {
+                    seen += scan(gx, cy - ring, x, y, k, filter, best);
+                    seen += scan(gx, cy + ring, x, y, k, filter, best);
+                }
+            }
+        }
+        Hit[] hits = best.toArray(new Hit[0]);
+        Arrays.sort(hits, (a, b) -> Double.compare(a.dist2, b.dist2));
+        List<Vehicle> out = new ArrayList<>(hits.length);
+        for (Hit h : hits) out.add(h.vehicle);
+        return out;
+    }
+
+    // Vehicles within radiusKm of (x, y) that match the filter, nearest first
+    public synchronized List<Vehicle> withinRadius(double x, double y, double radiusKm, VehiclePredicate filter) {
+        List<Hit> hits = new ArrayList<>();
+        double r2 = radiusKm * radiusKm;
+        int x0 = cellOf(x - radiusKm), x1 = cellOf(x + radiusKm);
+        int y0 = cellOf(y - radiusKm), y1 = cellOf(y + radiusKm);
+        for (int gx = x0; gx <= x1; gx++) {
+            for (int gy = y0; gy <= y1; gy++) {
+                Cell c = cells.get(key(gx, gy));
+                if (c == null) continue;
+                for (int i = 0; i < c.size; i++) {
+                    double dx = c.xs[i] - x, dy = c.ys[i] - y;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 <= r2 && (filter == null || filter.test(c.items[i].vehicle))) {
+                        hits.add(new Hit(c.items[i].vehicle, d2));
+                    }
+                }
+            }
+        }
+        hits.sort((a, b) -> Double.compare(a.dist2, b.dist2));
+        List<Vehicle> out = new ArrayList<>(hits.size());
+        for (Hit h : hits) out.add(h.vehicle);
+        return out;
+    }
+
+    // Returns the number of vehicles in the cell, matched or not
+    private int scan(int gx, int gy, double x, double y, int k, VehiclePredicate filter, PriorityQueue<Hit> best) {
+        Cell c = cells.get(key(gx, gy));
+        return c == null ? 0 : scan(c, x, y, k, filter, best);
+    }
+
+    private int scan(Cell c, double x, double y, int k, VehiclePredicate filter, PriorityQueue<Hit> best) {
+        for (int i = 0; i < c.size; i++) {
+            double dx = c.xs[i] - x, dy = c.ys[i] - y;
+            double d2 = dx * dx + dy * dy;
+            if (best.size() == k && d2 >= best.peek().dist2) continue;
+            Vehicle v = c.items[i].vehicle;
+            if (filter != null && !filter.test(v)) continue;
+            best.add(new Hit(v, d2));
+            if (best.size() > k) best.poll();
+        }
+        return c.size;
+    }
+
+    private void place(Vehicle v) {
+        double x = v.getX(), y = v.getY();
+        int gx = cellOf(x), gy = cellOf(y);
+        Loc loc = locations.get(v);
+        if (loc != null) {
+            Cell c = loc.cell;
+            if (c.gx == gx && c.gy == gy) {
+                c.xs[loc.slot] = x;
+                c.ys[loc.slot] = y;
+                return;
+            }
+            c.remove(loc.slot);
+            if (c.size == 0) cells.remove(key(c.gx, c.gy));
+        } else {
+            loc = new Loc(v);
+            locations.put(v, loc);
+        }
+        Cell target = cells.get(key(gx, gy));
+        if (target == null) {
+            target = new Cell(gx, gy);
+            cells.put(key(gx, gy), target);
+        }
+        target.add(loc, x, y);
+    }
+
+    private void remove(Vehicle v) {
+        Loc loc = locations.remove(v);
+        if (loc == null) return;
+        Cell c = loc.cell;
+        c.remove(loc.slot);
+        if (c.size == 0) cells.remove(key(c.gx, c.gy));
+    }
+
+    private int cellOf(double coord) {
+        return (int) Math.floor(coord / cellSize);
+    }
+
+    private static long key(int gx, int gy) {
+        return ((long) gx << 32) | (gy & 0xffffffffL);
+    }
+
+    private static final class Loc {
+        final Vehicle vehicle;
+        Cell cell;
+        int slot;
+
+        Loc(Vehicle vehicle) {
+            this.vehicle = vehicle;
+        }
+    }
+
+    private static final class Cell {
+        final int gx;
+        final int gy;
+        Loc[] items = new Loc[8];
+        double[] xs = new double[8];
+        double[] ys = new double[8];
+        int size;
+
+        Cell(int gx, int gy) {
+            this.gx = gx;
+            this.gy = gy;
+        }
+
+        void add(Loc loc, double x, double y) {
+            if (size == items.length) {
+                int n = size * 2;
+                items = Arrays.copyOf(items, n);
+                xs = Arrays.copyOf(xs, n);
+                ys = Arrays.copyOf(ys, n);
+            }
+            items[size] = loc;
+            xs[size] = x;
+            ys[size] = y;
+            loc.cell = this;
+            loc.slot = size;
+            size++;
+        }
+
+        void remove(int slot) {
+            int last = --size;
+            if (slot != last) {
+                items[slot] = items[last];
+                xs[slot] = xs[last];
+                ys[slot] = ys[last];
+                items[slot].slot = slot;
+            }
+            items[last] = null;
+        }
+    }
+
+    private static final class Hit {
+        final Vehicle vehicle;
+        final double dist2;
+
+        Hit(Vehicle vehicle, double dist2) {
+            this.vehicle = vehicle;
+            this.dist2 = dist2;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package telemetry;
+
+import fleet.FleetManager;
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import vehicles.Vehicle;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Applies line-delimited telemetry to the vehicles of a FleetManager. Vehicles are partitioned by ID
+// hash at construction; each partition is owned by exactly one worker thread, so vehicle state is only
+// ever mutated by its owner. Producers block on a full partition queue (backpressure). The fleet's
+// membership must not change while the pipeline is running.
+public class TelemetryPipeline implements AutoCloseable {
+    private static final int BATCH_SIZE = 256;
+    private static final TelemetryRecord POISON = new TelemetryRecord("", TelemetryRecord.Kind.MOVE, 0.0);
+
+    private final List<BlockingQueue<TelemetryRecord>> queues;
+    private final List<Map<String, Vehicle>> shards;
+    private final Thread[] workers;
+    // Guarded by connectionThreads
+    private final List<Thread> connectionThreads = new ArrayList<>();
+    private final Set<Socket> openSockets = new HashSet<>();
+    private volatile boolean closing;
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder unknownVehicle = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private volatile ServerSocket server;
+    private boolean started;
+
+    public TelemetryPipeline(FleetManager manager, int partitions, int queueCapacity) {
+        if (partitions <= 0) throw new IllegalArgumentException("partitions must be > 0");
+        this.queues = new ArrayList<>(partitions);
+        this.shards = new ArrayList<>(partitions);
+        this.workers = new Thread[partitions];
+        for (int i = 0; i < partitions; i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+            shards.add(new HashMap<>());
+        }
+        for (Vehicle v : manager.getFleet()) {
+            shards.get(partitionOf(v.getId())).put(v.getId(), v);
+        }
+    }
+
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        for (int i = 0; i < workers.length; i++) {
+            final int p = i;
+            workers[i] = new Thread(() -> runWorker(p), "telemetry-worker-" + i);
+            workers[i].start();
+        }
+    }
+
+    public void submit(TelemetryRecord r) throws InterruptedException {
+        queues.get(partitionOf(r.getVehicleId())).put(r);
+    }
+
+    public void submitLine(String line) throws InterruptedException {
+        if (line.isBlank()) return;
+        TelemetryRecord r;
+        try {
+            r = TelemetryRecord.parse(line);
+        } catch (RuntimeException e) {
+            malformed.increment();
+            return;
+        }
+        submit(r);
+    }
+
+    public long ingestFile(String filename) throws IOException, InterruptedException {
+        try (BufferedReader br = new BufferedReader(new FileReader(filename, StandardCharsets.UTF_8), 1 << 16)) {
+            return ingest(br);
+        }
+    }
+
+    public long ingest(Reader in) throws IOException, InterruptedException {
+        BufferedReader br = in instanceof BufferedReader b ? b : new BufferedReader(in, 1 << 16);
+        long lines = 0;
+        String line;
+        while ((line = br.readLine()) != null) {
+            submitLine(line);
+            lines++;
+        }
+        return lines;
+    }
+
+    // Accepts telemetry connections on the loopback interface; port 0 picks a free port.
+    public synchronized int listen(int port) throws IOException {
+        if (server != null) return server.getLocalPort();
+        ServerSocket ss = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        server = ss;
+        Thread acceptor = new Thread(() -> acceptLoop(ss), "telemetry-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return ss.getLocalPort();
+    }
+
+    // Stops accepting connections, disconnects open clients, drains every queue and waits for the
+    // workers to finish. If the calling thread is interrupted the workers are stopped without draining.
+    @Override
+    public void close() {
+        List<Thread> conns;
+        List<Socket> sockets;
+        synchronized (connectionThreads) {
+            if (closing) return;
+            closing = true;
+            conns = new ArrayList<>(connectionThreads);
+            sockets = new ArrayList<>(openSockets);
+        }
+        ServerSocket ss = server;
+        if (ss != null) closeQuietly(ss);
+        for (Socket s : sockets) closeQuietly(s);
+        boolean wasStarted;
+        synchronized (this) {
+            wasStarted = started;
+        }
+        try {
+            for (Thread t : conns) t.join();
+            if (!wasStarted) return;
+            for (BlockingQueue<TelemetryRecord> q : queues) q.put(POISON);
+            for (Thread w : workers) w.join();
+        } catch (InterruptedException e) {
+            if (wasStarted) for (Thread w : workers) w.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getApplied() {
+        return applied.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getUnknownVehicle() {
+        return unknownVehicle.sum();
+    }
+
+    public long getMalformed() {
+        return malformed.sum();
+    }
+
+    private int partitionOf(String id) {
+        return Math.floorMod(id.hashCode(), queues.size());
+    }
+
+    private void acceptLoop(ServerSocket ss) {
+        while (!ss.isClosed()) {
+            try {
+                Socket s = ss.accept();
+                Thread t = new Thread(() -> readConnection(s), "telemetry-conn-" + s.getPort());
+                synchronized (connectionThreads) {
+                    if (closing) {
+                        closeQuietly(s);
+                        continue;
+                    }
+                    connectionThreads.add(t);
+                    openSockets.add(s);
+                }
+                t.start();
+            } catch (IOException e) {
+                if (!ss.isClosed()) System.out.println("Telemetry accept error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void readConnection(Socket s) {
+        try (s; BufferedReader br = new BufferedReader(
+                new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            ingest(br);
+        } catch (IOException e) {
+            if (!closing) System.out.println("Telemetry connection error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (connectionThreads) {
+                openSockets.remove(s);
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void runWorker(int p) {
+        BlockingQueue<TelemetryRecord> q = queues.get(p);
+        Map<String, Vehicle> shard = shards.get(p);
+        List<TelemetryRecord> batch = new ArrayList<>(BATCH_SIZE);
+        boolean done = false;
+        try {
+            while (!done) {
+                batch.add(q.take());
+                q.drainTo(batch, BATCH_SIZE - 1);
+                long ok = 0, bad = 0, unknown = 0;
+                for (TelemetryRecord r : batch) {
+                    if (r == POISON) {
+                        done = true;
+                        continue;
+                    }
+                    Vehicle v = shard.get(r.getVehicleId());
+                    if (v == null) {
+                        unknown++;
+                    } else if (apply(v, r)) {
+                        ok++;
+                    } else {
+                        bad++;
+                    }
+                }
+                applied.add(ok);
+                failed.add(bad);
+                unknownVehicle.add(unknown);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean apply(Vehicle v, TelemetryRecord r) {
+        try {
+            switch (r.getKind()) {
+                case MOVE -> v.move(r.getValue());
+                case REFUEL -> {
+                    if (!(v instanceof FuelConsumable f)) return false;
+                    f.refuel(r.getValue());
+                }
+                case LOAD -> {
+                    if (!(v instanceof CargoCarrier c)) return false;
+                    c.loadCargo(r.getValue());
+                }
+                case UNLOAD -> {
+                    if (!(v instanceof CargoCarrier c)) return false;
+                    c.unloadCargo(r.getValue());
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
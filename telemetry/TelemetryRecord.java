@@ -0,0 +1,46 @@
+package telemetry;
+
+import util.JsonLine;
+
+import java.util.Map;
+
+public final class TelemetryRecord {
+    public enum Kind { MOVE, REFUEL, LOAD, UNLOAD }
+
+    private final String vehicleId;
+    private final Kind kind;
+    private final double value;
+
+    public TelemetryRecord(String vehicleId, Kind kind, double value) {
+        this.vehicleId = vehicleId;
+        this.kind = kind;
+        this.value = value;
+    }
+
+    // {"vehicle": "T001", "op": "move", "value": 12.5}
+    public static TelemetryRecord parse(String line) {
+        Map<String, String> m = JsonLine.parse(line);
+        String id = m.get("vehicle");
+        String op = m.get("op");
+        String value = m.get("value");
+        if (id == null || op == null || value == null) {
+            throw new IllegalArgumentException("Telemetry record needs vehicle, op and value");
+        }
+        double v = Double.parseDouble(value);
+        // NaN would slip past the vehicles' range checks and end up in the saved fleet
+        if (!Double.isFinite(v)) throw new IllegalArgumentException("Telemetry value must be finite: " + value);
+        return new TelemetryRecord(id, Kind.valueOf(op.toUpperCase()), v);
+    }
+
+    public String getVehicleId() {
+        return vehicleId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public double getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,322 @@
+package tenancy;
+
+import exceptions.InvalidOperationException;
+import exceptions.OverloadException;
+import fleet.FleetManager;
+import fleet.FleetStats;
+import vehicles.MoveResult;
+import vehicles.Vehicle;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hosts many independent fleets (one per depot) in one JVM on a shared worker pool. A tenant's
+// tasks run one at a time in submission order; across tenants the pool always picks the runnable
+// tenant with the least CPU time per unit of weight, so one depot flooding the host with bulk work
+// can't starve the others. startAllJourneys is cut into slices so big fleets yield between slices.
+public class FleetHost implements AutoCloseable {
+    private static final int JOURNEY_SLICE = 4096;
+    private static final AtomicInteger HOSTS = new AtomicInteger();
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final File dataDir;
+    private final ThreadMXBean cpu = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTiming;
+
+    // Guarded by this
+    private final Map<String, Tenant> tenants = new LinkedHashMap<>();
+    private final PriorityQueue<Tenant> ready = new PriorityQueue<>(Comparator.comparingLong(t -> t.virtualTime));
+    private int active;
+    private long clock;  // virtual time of the last tenant dispatched; idle tenants rejoin here
+    private boolean closed;
+
+    public FleetHost(int threads, String dataDir) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+        this.threads = threads;
+        this.dataDir = new File(dataDir);
+        this.dataDir.mkdirs();
+        this.cpuTiming = cpu.isCurrentThreadCpuTimeSupported() && cpu.isThreadCpuTimeEnabled();
+        int host = HOSTS.incrementAndGet();
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "fleet-host-" + host + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Tenant names double as persistence file names (<dataDir>/<name>.csv)
+    public synchronized Tenant addTenant(String name, TenantBudget budget) throws InvalidOperationException {
+        if (closed) throw new InvalidOperationException("Host is closed");
+        if (name == null || !name.matches("[A-Za-z0-9_-]+"))
+            throw new InvalidOperationException("Tenant name must be letters, digits, '-' or '_': " + name);
+        if (tenants.containsKey(name)) throw new InvalidOperationException("Tenant already exists: " + name);
+        Tenant t = new Tenant(name, budget, new File(dataDir, name + ".csv").getPath());
+        t.virtualTime = clock;
+        tenants.put(name, t);
+        return t;
+    }
+
+    // Work already queued for the tenant still runs; new submissions are rejected
+    public synchronized void removeTenant(String name) throws InvalidOperationException {
+        Tenant t = tenants.remove(name);
+        if (t == null) throw new InvalidOperationException("Tenant not found: " + name);
+    }
+
+    public synchronized Tenant getTenant(String name) {
+        return tenants.get(name);
+    }
+
+    public synchronized List<Tenant> getTenants() {
+        return new ArrayList<>(tenants.values());
+    }
+
+    public <T> CompletableFuture<T> submit(String tenant, TenantTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (this) {
+            Tenant t = tenants.get(tenant);
+            if (closed || t == null) {
+                result.completeExceptionally(new InvalidOperationException(
+                        closed ? "Host is closed" : "Tenant not found: " + tenant));
+                return result;
+            }
+            enqueue(t, () -> {
+                try {
+                    result.complete(task.run(t.manager));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            }, false);
+        }
+        return result;
+    }
+
+    public void addVehicle(String tenant, Vehicle v) throws InvalidOperationException, OverloadException {
+        Tenant t = getTenant(tenant);
+        if (t == null) throw new InvalidOperationException("Tenant not found: " + tenant);
+        int max = t.getBudget().getMaxVehicles();
+        await(submit(tenant, m -> {
+            if (m.size() >= max)
+                throw new OverloadException("Tenant " + tenant + " is at its budget of " + max + " vehicles");
+            m.addVehicle(v);
+            return null;
+        }));
+    }
+
+    public void removeVehicle(String tenant, String id) throws InvalidOperationException {
+        try {
+            await(submit(tenant, m -> {
+                m.removeVehicle(id);
+                return null;
+            }));
+        } catch (OverloadException e) {
+            throw new InvalidOperationException(e.getMessage());
+        }
+    }
+
+    // Returns the number of failed moves per tenant
+    public Map<String, Integer> startAllJourneys(double distance) throws InvalidOperationException {
+        Map<String, CompletableFuture<Integer>> pending = new LinkedHashMap<>();
+        synchronized (this) {
+            if (closed) throw new InvalidOperationException("Host is closed");
+            for (Tenant t : tenants.values()) {
+                JourneySlice first = new JourneySlice(t, distance);
+                pending.put(t.getName(), first.done);
+                enqueue(t, first, false);
+            }
+        }
+        Map<String, Integer> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<Integer>> e : pending.entrySet()) {
+            failures.put(e.getKey(), gather(e.getValue()));
+        }
+        return failures;
+    }
+
+    public void maintainAll() {
+        scatter(m -> {
+            m.maintainAll();
+            return null;
+        });
+    }
+
+    // Each tenant aggregates its own fleet in place; only the partial stats cross tenants
+    public FleetStats collectStats() {
+        FleetStats total = new FleetStats();
+        for (FleetStats part : scatter(FleetManager::collectStats).values()) total.merge(part);
+        return total;
+    }
+
+    public Map<String, FleetStats> collectStatsByTenant() {
+        return scatter(FleetManager::collectStats);
+    }
+
+    public String generateReport() {
+        return collectStats().toReport();
+    }
+
+    public int size() {
+        int n = 0;
+        for (Integer part : scatter(FleetManager::size).values()) n += part;
+        return n;
+    }
+
+    public void saveAll() {
+        for (Tenant t : getTenants()) {
+            gather(submit(t.getName(), m -> {
+                m.saveToFile(t.getFile());
+                return null;
+            }));
+        }
+    }
+
+    // Tenants without a saved file keep their current fleet
+    public void loadAll() {
+        for (Tenant t : getTenants()) {
+            if (!new File(t.getFile()).exists()) continue;
+            // The manager's limit keeps the load within the tenant's budget
+            gather(submit(t.getName(), m -> m.loadFromFile(t.getFile())));
+        }
+    }
+
+    // Lets queued work finish, then stops the pool
+    @Override
+    public synchronized void close() {
+        closed = true;
+        boolean interrupted = false;
+        while (active > 0 || !ready.isEmpty()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        pool.shutdown();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // first puts the task ahead of the tenant's other work (used to continue a sliced bulk op)
+    private synchronized void enqueue(Tenant t, Runnable task, boolean first) {
+        if (first) t.queue.addFirst(task);
+        else t.queue.addLast(task);
+        if (!t.running && t.queue.size() == 1) {
+            t.virtualTime = Math.max(t.virtualTime, clock);
+            ready.add(t);
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (active < threads && !ready.isEmpty()) {
+            Tenant t = ready.poll();
+            Runnable task = t.queue.poll();
+            try {
+                pool.execute(() -> run(t, task));
+            } catch (RejectedExecutionException e) {
+                // Leave the task queued and the tenant idle so the counts close() waits on stay true
+                t.queue.addFirst(task);
+                throw e;
+            }
+            // Safe after execute: the task can't finish (and decrement) until this lock is released
+            t.running = true;
+            active++;
+            clock = t.virtualTime;
+        }
+    }
+
+    private void run(Tenant t, Runnable task) {
+        long start = now();
+        try {
+            task.run();
+        } finally {
+            long used = now() - start;
+            synchronized (this) {
+                t.charge(used);
+                t.running = false;
+                active--;
+                if (!t.queue.isEmpty()) ready.add(t);
+                dispatch();
+                notifyAll();
+            }
+        }
+    }
+
+    private long now() {
+        return cpuTiming ? cpu.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private <T> Map<String, T> scatter(TenantTask<T> task) {
+        Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        for (Tenant t : getTenants()) pending.put(t.getName(), submit(t.getName(), task));
+        Map<String, T> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<T>> e : pending.entrySet()) results.put(e.getKey(), gather(e.getValue()));
+        return results;
+    }
+
+    private static <T> T gather(Future<T> f) {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tenant task failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tenants", e);
+        }
+    }
+
+    private static <T> T await(Future<T> f) throws InvalidOperationException, OverloadException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable t = e.getCause();
+            if (t instanceof InvalidOperationException ioe) throw ioe;
+            if (t instanceof OverloadException oe) throw oe;
+            if (t instanceof RuntimeException re) throw re;
+            if (t instanceof Error err) throw err;
+            throw new InvalidOperationException(t.getClass().getSimpleName() + ": " + t.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InvalidOperationException("Interrupted while waiting for tenant");
+        }
+    }
+
+    // Moves JOURNEY_SLICE vehicles, then re-queues itself at the head of the tenant's queue so the
+    // tenant's later work still runs after the whole journey, while other tenants get a turn
+    private final class JourneySlice implements Runnable {
+        final CompletableFuture<Integer> done = new CompletableFuture<>();
+        private final Tenant tenant;
+        private final double distance;
+        private Vehicle[] vehicles;
+        private int next;
+        private int failures;
+
+        JourneySlice(Tenant tenant, double distance) {
+            this.tenant = tenant;
+            this.distance = distance;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (vehicles == null) vehicles = tenant.manager.getFleet().toArray(new Vehicle[0]);
+                int end = Math.min(vehicles.length, next + JOURNEY_SLICE);
+                for (; next < end; next++) {
+                    if (vehicles[next].tryMove(distance) != MoveResult.MOVED) failures++;
+                }
+                if (next < vehicles.length) enqueue(tenant, this, true);
+                else done.complete(failures);
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package tenancy;
+
+import fleet.FleetManager;
+
+import java.util.ArrayDeque;
+
+// One fleet hosted by a FleetHost. The manager is only touched by the tenant's own tasks, which
+// run one at a time, so it needs no locking of its own. Its vehicle limit is the budget's
+// maxVehicles, so tasks that add vehicles or load a file can't grow it past the budget.
+public class Tenant {
+    private final String name;
+    private final TenantBudget budget;
+    private final String file;
+    final FleetManager manager = new FleetManager();
+
+    // Scheduler state, guarded by the owning FleetHost
+    final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    boolean running;
+    long virtualTime;  // CPU nanos charged so far divided by weight; lowest runs next
+    private volatile long cpuNanos;
+    private volatile long tasksRun;
+
+    Tenant(String name, TenantBudget budget, String file) {
+        this.name = name;
+        this.budget = budget;
+        this.file = file;
+        manager.setMaxVehicles(budget.getMaxVehicles());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TenantBudget getBudget() {
+        return budget;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getTasksRun() {
+        return tasksRun;
+    }
+
+    // Called by the host once a task has finished, with the pool lock held
+    void charge(long nanos) {
+        cpuNanos += nanos;
+        tasksRun++;
+        virtualTime += nanos / budget.getWeight();
+    }
+}
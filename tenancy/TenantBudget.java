@@ -0,0 +1,25 @@
+package tenancy;
+
+// Limits for one hosted fleet. maxVehicles is the memory budget (vehicles are what a fleet's heap
+// footprint scales with); weight is the tenant's share of pool CPU time relative to the others.
+public class TenantBudget {
+    public static final TenantBudget UNLIMITED = new TenantBudget(Integer.MAX_VALUE, 1);
+
+    private final int maxVehicles;
+    private final int weight;
+
+    public TenantBudget(int maxVehicles, int weight) {
+        if (maxVehicles < 0) throw new IllegalArgumentException("maxVehicles must be >= 0");
+        if (weight <= 0) throw new IllegalArgumentException("weight must be > 0");
+        this.maxVehicles = maxVehicles;
+        this.weight = weight;
+    }
+
+    public int getMaxVehicles() {
+        return maxVehicles;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+}
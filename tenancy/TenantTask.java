@@ -0,0 +1,8 @@
+package tenancy;
+
+import fleet.FleetManager;
+
+// Work run against one tenant's fleet on the host pool; tasks for the same tenant never overlap
+public interface TenantTask<T> {
+    T run(FleetManager manager) throws Exception;
+}
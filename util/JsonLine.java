@@ -0,0 +1,98 @@
+package util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Minimal parser for one flat JSON object per line: {"key": "text", "n": 1.5, "b": true}
+// Nested objects/arrays are not supported; values are returned as their string form.
+public final class JsonLine {
+    private JsonLine() {
+    }
+
+    public static Map<String, String> parse(String line) {
+        Map<String, String> out = new HashMap<>();
+        int i = skipWs(line, 0);
+        if (i >= line.length() || line.charAt(i) != '{') throw new IllegalArgumentException("Expected '{'");
+        i = skipWs(line, i + 1);
+        if (i < line.length() && line.charAt(i) == '}') return out;
+        StringBuilder sb = new StringBuilder();
+        while (i < line.length()) {
+            sb.setLength(0);
+            i = readString(line, skipWs(line, i), sb);
+            String key = sb.toString();
+            i = skipWs(line, i);
+            if (i >= line.length() || line.charAt(i) != ':') throw new IllegalArgumentException("Expected ':' after " + key);
+            i = skipWs(line, i + 1);
+            if (i < line.length() && line.charAt(i) == '"') {
+                sb.setLength(0);
+                i = readString(line, i, sb);
+                out.put(key, sb.toString());
+            } else {
+                int start = i;
+                while (i < line.length() && line.charAt(i) != ',' && line.charAt(i) != '}') i++;
+                String raw = line.substring(start, i).trim();
+                if (raw.startsWith("{") || raw.startsWith("[")) throw new IllegalArgumentException("Nested value for " + key);
+                out.put(key, raw.equals("null") ? null : raw);
+            }
+            i = skipWs(line, i);
+            if (i >= line.length()) break;
+            char c = line.charAt(i);
+            if (c == '}') return out;
+            if (c != ',') throw new IllegalArgumentException("Expected ',' or '}'");
+            i++;
+        }
+        throw new IllegalArgumentException("Unterminated object");
+    }
+
+    public static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static int readString(String s, int i, StringBuilder sb) {
+        if (i >= s.length() || s.charAt(i) != '"') throw new IllegalArgumentException("Expected string at " + i);
+        i++;
+        while (i < s.length()) {
+            char c = s.charAt(i++);
+            if (c == '"') return i;
+            if (c == '\\') {
+                if (i >= s.length()) break;
+                char e = s.charAt(i++);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                        i += 4;
+                    }
+                    default -> sb.append(e);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    private static int skipWs(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+}
@@ -4,16 +4,17 @@ import exceptions.InvalidOperationException;
 
 public abstract class AirVehicle extends Vehicle {
     private double maxAltitude;
+    private final double hoursPerKm;
 
     public AirVehicle(String id, String model, double maxSpeed, double maxAltitude) throws InvalidOperationException {
         super(id, model, maxSpeed);
+        this.hoursPerKm = 0.95 / maxSpeed; // -5% for direct paths
         this.maxAltitude = maxAltitude;
     }
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / getMaxSpeed();
-        return baseTime * 0.95; // reduce 5% for direct paths
+        return distance * hoursPerKm;
     }
 
     public double getMaxAltitude() {
@@ -2,37 +2,64 @@ package vehicles;
 
 import interfaces.*;
 import exceptions.*;
+import profiling.VehicleMoveEvent;
 
 public class Airplane extends AirVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable {
     private double fuelLevel;
-    private final int passengerCapacity = 200;
     private int currentPassengers;
-    private final double cargoCapacity = 10000.0;
     private double currentCargo;
+    private double efficiency;  // spec efficiency at currentCargo, refreshed on load/unload
     private boolean maintenanceFlag;
+    private final String flightLog;  // built once; move() would otherwise concatenate on every call
 
     public Airplane(String id, String model, double maxSpeed, double maxAltitude) throws InvalidOperationException {
         super(id, model, maxSpeed, maxAltitude);
         this.fuelLevel = 0.0;
         this.currentPassengers = 0;
         this.currentCargo = 0.0;
+        this.efficiency = getSpec().efficiencyAt(0.0);
         this.maintenanceFlag = false;
+        this.flightLog = "Flying at " + maxAltitude + " meters...";
     }
 
     @Override
     public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
+        MoveResult result = tryMove(distance);
+        switch (result) {
+            case NEGATIVE_DISTANCE, INVALID_EFFICIENCY -> throw new InvalidOperationException(moveFailureMessage(result));
+            case INSUFFICIENT_FUEL -> throw new InsufficientFuelException(moveFailureMessage(result));
+            default -> { }
+        }
+    }
+
+    @Override
+    public String moveFailureMessage(MoveResult result) {
+        return result == MoveResult.INSUFFICIENT_FUEL ? "Insufficient fuel for flight" : super.moveFailureMessage(result);
+    }
+
+    @Override
+    public MoveResult tryMove(double distance) {
+        if (distance < 0) return MoveResult.NEGATIVE_DISTANCE;
         double eff = calculateFuelEfficiency();
         double needed = distance / eff;
-        if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel for flight");
+        if (needed > fuelLevel) return MoveResult.INSUFFICIENT_FUEL;
+        VehicleMoveEvent event = VehicleMoveEvent.start();
         fuelLevel -= needed;
-        addMileage(distance);
-        System.out.println("Flying at " + getMaxAltitude() + " meters...");
+        addMileage(distance, needed);
+        event.finish(this, distance, needed);
+        notifyChange(VehicleChange.MOVED);
+        if (isLoggingEnabled()) System.out.println(flightLog);
+        return MoveResult.MOVED;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        return 5.0;
+        return efficiency;
+    }
+
+    @Override
+    protected double loadFactor() {
+        return Math.max(fraction(currentPassengers, getPassengerCapacity()), fraction(currentCargo, getCargoCapacity()));
     }
 
     // FuelConsumable
@@ -40,6 +67,14 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     public void refuel(double amount) throws InvalidOperationException {
         if (amount <= 0) throw new InvalidOperationException("Refuel must be > 0");
         fuelLevel += amount;
+        notifyChange(VehicleChange.REFUELED);
+    }
+
+    @Override
+    public void restoreFuel(double level) throws InvalidOperationException {
+        if (!(level >= 0) || Double.isInfinite(level)) throw new InvalidOperationException("Invalid fuel level " + level);
+        fuelLevel = level;
+        notifyChange(VehicleChange.RESTORED);
     }
 
     @Override
@@ -53,6 +88,8 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         double needed = distance / eff;
         if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel");
         fuelLevel -= needed;
+        addFuelBurn(needed);
+        notifyChange(VehicleChange.FUEL_CONSUMED);
         return needed;
     }
 
@@ -60,9 +97,10 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     @Override
     public void boardPassengers(int count) throws OverloadException {
         if (count <= 0) return;
-        if (currentPassengers + count > passengerCapacity)
+        if (currentPassengers + count > getPassengerCapacity())
             throw new OverloadException("Passenger overload for Airplane");
         currentPassengers += count;
+        notifyChange(VehicleChange.PASSENGERS_CHANGED);
     }
 
     @Override
@@ -70,11 +108,12 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (count < 0) throw new InvalidOperationException("Invalid passenger count");
         if (count > currentPassengers) throw new InvalidOperationException("Cannot disembark more than onboard");
         currentPassengers -= count;
+        notifyChange(VehicleChange.PASSENGERS_CHANGED);
     }
 
     @Override
     public int getPassengerCapacity() {
-        return passengerCapacity;
+        return getSpec().getPassengerCapacity();
     }
 
     @Override
@@ -86,9 +125,11 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     @Override
     public void loadCargo(double weight) throws OverloadException {
         if (weight <= 0) return;
-        if (currentCargo + weight > cargoCapacity)
+        if (currentCargo + weight > getCargoCapacity())
             throw new OverloadException("Cargo overload for Airplane");
         currentCargo += weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
@@ -96,11 +137,13 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         if (weight < 0) throw new InvalidOperationException("Invalid unload weight");
         if (weight > currentCargo) throw new InvalidOperationException("Cannot unload more than present");
         currentCargo -= weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
     public double getCargoCapacity() {
-        return cargoCapacity;
+        return getSpec().getCargoCapacity();
     }
 
     @Override
@@ -112,16 +155,24 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
     @Override
     public void scheduleMaintenance() {
         maintenanceFlag = true;
+        notifyChange(VehicleChange.MAINTENANCE_SCHEDULED);
+    }
+
+    @Override
+    public boolean isMaintenanceScheduled() {
+        return maintenanceFlag;
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceFlag || getCurrentMileage() > 10000.0;
+        return maintenanceFlag || getMileageSinceService() > getSpec().getServiceInterval();
     }
 
     @Override
     public void performMaintenance() {
         maintenanceFlag = false;
+        resetServiceCounters();
+        notifyChange(VehicleChange.MAINTAINED);
         System.out.println("Airplane maintenance performed.");
     }
 }
@@ -2,13 +2,13 @@ package vehicles;
 
 import interfaces.*;
 import exceptions.*;
+import profiling.VehicleMoveEvent;
 
 public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable {
     private double fuelLevel;
-    private final int passengerCapacity = 50;
     private int currentPassengers;
-    private final double cargoCapacity = 500.0; // kg
     private double currentCargo;
+    private double efficiency;  // spec efficiency at currentCargo, refreshed on load/unload
     private boolean maintenanceFlag;
 
     public Bus(String id, String model, double maxSpeed, int numWheels) throws InvalidOperationException {
@@ -16,23 +16,48 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         this.fuelLevel = 0.0;
         this.currentPassengers = 0;
         this.currentCargo = 0.0;
+        this.efficiency = getSpec().efficiencyAt(0.0);
         this.maintenanceFlag = false;
     }
 
     @Override
     public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
+        MoveResult result = tryMove(distance);
+        switch (result) {
+            case NEGATIVE_DISTANCE, INVALID_EFFICIENCY -> throw new InvalidOperationException(moveFailureMessage(result));
+            case INSUFFICIENT_FUEL -> throw new InsufficientFuelException(moveFailureMessage(result));
+            default -> { }
+        }
+    }
+
+    @Override
+    public String moveFailureMessage(MoveResult result) {
+        return result == MoveResult.INSUFFICIENT_FUEL ? "Insufficient fuel for the bus journey" : super.moveFailureMessage(result);
+    }
+
+    @Override
+    public MoveResult tryMove(double distance) {
+        if (distance < 0) return MoveResult.NEGATIVE_DISTANCE;
         double eff = calculateFuelEfficiency();
         double needed = distance / eff;
-        if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel for the bus journey");
+        if (needed > fuelLevel) return MoveResult.INSUFFICIENT_FUEL;
+        VehicleMoveEvent event = VehicleMoveEvent.start();
         fuelLevel -= needed;
-        addMileage(distance);
-        System.out.println("Transporting passengers and cargo...");
+        addMileage(distance, needed);
+        event.finish(this, distance, needed);
+        notifyChange(VehicleChange.MOVED);
+        if (isLoggingEnabled()) System.out.println("Transporting passengers and cargo...");
+        return MoveResult.MOVED;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        return 10.0;
+        return efficiency;
+    }
+
+    @Override
+    protected double loadFactor() {
+        return Math.max(fraction(currentPassengers, getPassengerCapacity()), fraction(currentCargo, getCargoCapacity()));
     }
 
     // FuelConsumable
@@ -40,6 +65,14 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
     public void refuel(double amount) throws InvalidOperationException {
         if (amount <= 0) throw new InvalidOperationException("Refuel amount must be positive");
         fuelLevel += amount;
+        notifyChange(VehicleChange.REFUELED);
+    }
+
+    @Override
+    public void restoreFuel(double level) throws InvalidOperationException {
+        if (!(level >= 0) || Double.isInfinite(level)) throw new InvalidOperationException("Invalid fuel level " + level);
+        fuelLevel = level;
+        notifyChange(VehicleChange.RESTORED);
     }
 
     @Override
@@ -53,6 +86,8 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         double needed = distance / eff;
         if (needed > fuelLevel) throw new InsufficientFuelException("Not enough fuel");
         fuelLevel -= needed;
+        addFuelBurn(needed);
+        notifyChange(VehicleChange.FUEL_CONSUMED);
         return needed;
     }
 
@@ -60,9 +95,10 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
     @Override
     public void boardPassengers(int count) throws OverloadException {
         if (count <= 0) return;
-        if (currentPassengers + count > passengerCapacity)
+        if (currentPassengers + count > getPassengerCapacity())
             throw new OverloadException("Passenger overload for Bus");
         currentPassengers += count;
+        notifyChange(VehicleChange.PASSENGERS_CHANGED);
     }
 
     @Override
@@ -70,11 +106,12 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (count < 0) throw new InvalidOperationException("Invalid passenger count");
         if (count > currentPassengers) throw new InvalidOperationException("Cannot disembark more than onboard");
         currentPassengers -= count;
+        notifyChange(VehicleChange.PASSENGERS_CHANGED);
     }
 
     @Override
     public int getPassengerCapacity() {
-        return passengerCapacity;
+        return getSpec().getPassengerCapacity();
     }
 
     @Override
@@ -86,9 +123,11 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
     @Override
     public void loadCargo(double weight) throws OverloadException {
         if (weight <= 0) return;
-        if (currentCargo + weight > cargoCapacity)
+        if (currentCargo + weight > getCargoCapacity())
             throw new OverloadException("Cargo overload for Bus");
         currentCargo += weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
@@ -96,11 +135,13 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (weight < 0) throw new InvalidOperationException("Invalid unload weight");
         if (weight > currentCargo) throw new InvalidOperationException("Cannot unload more than current cargo");
         currentCargo -= weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
     public double getCargoCapacity() {
-        return cargoCapacity;
+        return getSpec().getCargoCapacity(); // kg
     }
 
     @Override
@@ -112,16 +153,24 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
     @Override
     public void scheduleMaintenance() {
         maintenanceFlag = true;
+        notifyChange(VehicleChange.MAINTENANCE_SCHEDULED);
+    }
+
+    @Override
+    public boolean isMaintenanceScheduled() {
+        return maintenanceFlag;
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceFlag || getCurrentMileage() > 10000.0;
+        return maintenanceFlag || getMileageSinceService() > getSpec().getServiceInterval();
     }
 
     @Override
     public void performMaintenance() {
         maintenanceFlag = false;
+        resetServiceCounters();
+        notifyChange(VehicleChange.MAINTAINED);
         System.out.println("Bus maintenance performed.");
     }
 }
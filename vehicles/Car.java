@@ -2,10 +2,10 @@ package vehicles;
 
 import interfaces.*;
 import exceptions.*;
+import profiling.VehicleMoveEvent;
 
 public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier, Maintainable {
     private double fuelLevel;
-    private final int passengerCapacity = 5;
     private int currentPassengers;
     private boolean maintenanceFlag;
 
@@ -18,17 +18,41 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     @Override
     public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
+        MoveResult result = tryMove(distance);
+        switch (result) {
+            case NEGATIVE_DISTANCE, INVALID_EFFICIENCY -> throw new InvalidOperationException(moveFailureMessage(result));
+            case INSUFFICIENT_FUEL -> throw new InsufficientFuelException(moveFailureMessage(result));
+            default -> { }
+        }
+    }
+
+    @Override
+    public String moveFailureMessage(MoveResult result) {
+        return result == MoveResult.INSUFFICIENT_FUEL ? "Not enough fuel for the trip" : super.moveFailureMessage(result);
+    }
+
+    @Override
+    public MoveResult tryMove(double distance) {
+        if (distance < 0) return MoveResult.NEGATIVE_DISTANCE;
         double fuelNeeded = distance / calculateFuelEfficiency();
-        if (fuelNeeded > fuelLevel) throw new InsufficientFuelException("Not enough fuel for the trip");
+        if (fuelNeeded > fuelLevel) return MoveResult.INSUFFICIENT_FUEL;
+        VehicleMoveEvent event = VehicleMoveEvent.start();
         fuelLevel -= fuelNeeded;
-        addMileage(distance);
-        System.out.println("Driving on road...");
+        addMileage(distance, fuelNeeded);
+        event.finish(this, distance, fuelNeeded);
+        notifyChange(VehicleChange.MOVED);
+        if (isLoggingEnabled()) System.out.println("Driving on road...");
+        return MoveResult.MOVED;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        return 15.0;
+        return getSpec().getBaseEfficiency();
+    }
+
+    @Override
+    protected double loadFactor() {
+        return fraction(currentPassengers, getPassengerCapacity());
     }
 
     // FuelConsumable
@@ -36,6 +60,14 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     public void refuel(double amount) throws InvalidOperationException {
         if (amount <= 0) throw new InvalidOperationException("Refuel amount must be > 0");
         fuelLevel += amount;
+        notifyChange(VehicleChange.REFUELED);
+    }
+
+    @Override
+    public void restoreFuel(double level) throws InvalidOperationException {
+        if (!(level >= 0) || Double.isInfinite(level)) throw new InvalidOperationException("Invalid fuel level " + level);
+        fuelLevel = level;
+        notifyChange(VehicleChange.RESTORED);
     }
 
     @Override
@@ -48,6 +80,8 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
         double needed = distance / calculateFuelEfficiency();
         if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel");
         fuelLevel -= needed;
+        addFuelBurn(needed);
+        notifyChange(VehicleChange.FUEL_CONSUMED);
         return needed;
     }
 
@@ -55,9 +89,10 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     @Override
     public void boardPassengers(int count) throws OverloadException {
         if (count <= 0) return;
-        if (currentPassengers + count > passengerCapacity)
+        if (currentPassengers + count > getPassengerCapacity())
             throw new OverloadException("Passenger overload for Car");
         currentPassengers += count;
+        notifyChange(VehicleChange.PASSENGERS_CHANGED);
     }
 
     @Override
@@ -65,11 +100,12 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
         if (count < 0) throw new InvalidOperationException("Invalid passenger count");
         if (count > currentPassengers) throw new InvalidOperationException("Not enough passengers to disembark");
         currentPassengers -= count;
+        notifyChange(VehicleChange.PASSENGERS_CHANGED);
     }
 
     @Override
     public int getPassengerCapacity() {
-        return passengerCapacity;
+        return getSpec().getPassengerCapacity();
     }
 
     @Override
@@ -81,16 +117,24 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
     @Override
     public void scheduleMaintenance() {
         maintenanceFlag = true;
+        notifyChange(VehicleChange.MAINTENANCE_SCHEDULED);
+    }
+
+    @Override
+    public boolean isMaintenanceScheduled() {
+        return maintenanceFlag;
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceFlag || getCurrentMileage() > 10000.0;
+        return maintenanceFlag || getMileageSinceService() > getSpec().getServiceInterval();
     }
 
     @Override
     public void performMaintenance() {
         maintenanceFlag = false;
+        resetServiceCounters();
+        notifyChange(VehicleChange.MAINTAINED);
         System.out.println("Car maintenance performed.");
     }
 }
@@ -2,50 +2,85 @@ package vehicles;
 
 import interfaces.*;
 import exceptions.*;
+import profiling.VehicleMoveEvent;
 
 public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainable, FuelConsumable {
-    private final double cargoCapacity = 50000.0;
     private double currentCargo;
+    private double efficiency;  // spec efficiency at currentCargo, refreshed on load/unload
     private boolean maintenanceFlag;
     private double fuelLevel;
 
     public CargoShip(String id, String model, double maxSpeed, boolean hasSail) throws InvalidOperationException {
         super(id, model, maxSpeed, hasSail);
         this.currentCargo = 0.0;
+        this.efficiency = getSpec().efficiencyAt(0.0);
         this.maintenanceFlag = false;
         this.fuelLevel = 0.0;
     }
 
     @Override
     public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
+        MoveResult result = tryMove(distance);
+        switch (result) {
+            case NEGATIVE_DISTANCE, INVALID_EFFICIENCY -> throw new InvalidOperationException(moveFailureMessage(result));
+            case INSUFFICIENT_FUEL -> throw new InsufficientFuelException(moveFailureMessage(result));
+            default -> { }
+        }
+    }
+
+    @Override
+    public String moveFailureMessage(MoveResult result) {
+        return switch (result) {
+            case INVALID_EFFICIENCY -> "Invalid fuel configuration for ship";
+            case INSUFFICIENT_FUEL -> "Insufficient fuel for sailing";
+            default -> super.moveFailureMessage(result);
+        };
+    }
+
+    @Override
+    public MoveResult tryMove(double distance) {
+        if (distance < 0) return MoveResult.NEGATIVE_DISTANCE;
         double eff = calculateFuelEfficiency();
         if (eff == 0.0 && hasSail()) {
-            addMileage(distance);
-            System.out.println("Sailing with cargo... (by sail)");
-            return;
+            VehicleMoveEvent event = VehicleMoveEvent.start();
+            addMileage(distance, 0.0);
+            event.finish(this, distance, 0.0);
+            notifyChange(VehicleChange.MOVED);
+            if (isLoggingEnabled()) System.out.println("Sailing with cargo... (by sail)");
+            return MoveResult.MOVED;
         }
-        if (eff <= 0.0) throw new InvalidOperationException("Invalid fuel configuration for ship");
+        if (eff <= 0.0) return MoveResult.INVALID_EFFICIENCY;
         double needed = distance / eff;
-        if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel for sailing");
+        if (needed > fuelLevel) return MoveResult.INSUFFICIENT_FUEL;
+        VehicleMoveEvent event = VehicleMoveEvent.start();
         fuelLevel -= needed;
-        addMileage(distance);
-        System.out.println("Sailing with cargo...");
+        addMileage(distance, needed);
+        event.finish(this, distance, needed);
+        notifyChange(VehicleChange.MOVED);
+        if (isLoggingEnabled()) System.out.println("Sailing with cargo...");
+        return MoveResult.MOVED;
     }
 
     @Override
     public double calculateFuelEfficiency() {
         if (hasSail()) return 0.0;
-        return 4.0;
+        return efficiency;
+    }
+
+    @Override
+    protected double loadFactor() {
+        return fraction(currentCargo, getCargoCapacity());
     }
 
     // CargoCarrier
     @Override
     public void loadCargo(double weight) throws OverloadException {
         if (weight <= 0) return;
-        if (currentCargo + weight > cargoCapacity)
+        if (currentCargo + weight > getCargoCapacity())
             throw new OverloadException("Cargo overload for CargoShip");
         currentCargo += weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
@@ -53,11 +88,13 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (weight < 0) throw new InvalidOperationException("Invalid unload weight");
         if (weight > currentCargo) throw new InvalidOperationException("Cannot unload more than present");
         currentCargo -= weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
     public double getCargoCapacity() {
-        return cargoCapacity;
+        return getSpec().getCargoCapacity();
     }
 
     @Override
@@ -69,16 +106,24 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
     @Override
     public void scheduleMaintenance() {
         maintenanceFlag = true;
+        notifyChange(VehicleChange.MAINTENANCE_SCHEDULED);
+    }
+
+    @Override
+    public boolean isMaintenanceScheduled() {
+        return maintenanceFlag;
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceFlag || getCurrentMileage() > 10000.0;
+        return maintenanceFlag || getMileageSinceService() > getSpec().getServiceInterval();
     }
 
     @Override
     public void performMaintenance() {
         maintenanceFlag = false;
+        resetServiceCounters();
+        notifyChange(VehicleChange.MAINTAINED);
         System.out.println("Cargo ship maintenance performed.");
     }
 
@@ -88,6 +133,15 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         if (hasSail()) throw new InvalidOperationException("This ship has sail; refuel not applicable");
         if (amount <= 0) throw new InvalidOperationException("Refuel amount > 0 required");
         fuelLevel += amount;
+        notifyChange(VehicleChange.REFUELED);
+    }
+
+    @Override
+    public void restoreFuel(double level) throws InvalidOperationException {
+        if (hasSail()) throw new InvalidOperationException("This ship has sail; refuel not applicable");
+        if (!(level >= 0) || Double.isInfinite(level)) throw new InvalidOperationException("Invalid fuel level " + level);
+        fuelLevel = level;
+        notifyChange(VehicleChange.RESTORED);
     }
 
     @Override
@@ -103,6 +157,8 @@ public class CargoShip extends WaterVehicle implements CargoCarrier, Maintainabl
         double needed = distance / eff;
         if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel");
         fuelLevel -= needed;
+        addFuelBurn(needed);
+        notifyChange(VehicleChange.FUEL_CONSUMED);
         return needed;
     }
 }
@@ -4,16 +4,17 @@ import exceptions.InvalidOperationException;
 
 public abstract class LandVehicle extends Vehicle {
     private int numWheels;
+    private final double hoursPerKm;
 
     public LandVehicle(String id, String model, double maxSpeed, int numWheels) throws InvalidOperationException {
         super(id, model, maxSpeed);
+        this.hoursPerKm = 1.1 / maxSpeed; // hours per km, +10% for traffic
         this.numWheels = numWheels;
     }
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / getMaxSpeed(); // hours
-        return baseTime * 1.1; // add 10% for traffic
+        return distance * hoursPerKm;
     }
 
     public int getNumWheels() {
@@ -0,0 +1,20 @@
+package vehicles;
+
+// Outcome of Vehicle.tryMove(); each failure maps to the exception move() would have thrown, whose
+// text is Vehicle.moveFailureMessage() (message() is the wording shared by every vehicle type)
+public enum MoveResult {
+    MOVED(null),
+    NEGATIVE_DISTANCE("Distance cannot be negative"),
+    INVALID_EFFICIENCY("Invalid fuel efficiency"),
+    INSUFFICIENT_FUEL("Insufficient fuel for the trip");
+
+    private final String message;
+
+    MoveResult(String message) {
+        this.message = message;
+    }
+
+    public String message() {
+        return message;
+    }
+}
@@ -2,39 +2,56 @@ package vehicles;
 
 import interfaces.*;
 import exceptions.*;
+import profiling.VehicleMoveEvent;
 
 public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable {
     private double fuelLevel;
-    private final double cargoCapacity = 5000.0; // kg
     private double currentCargo;
+    private double efficiency;  // spec efficiency at currentCargo, refreshed on load/unload
     private boolean maintenanceFlag;
 
     public Truck(String id, String model, double maxSpeed, int numWheels) throws InvalidOperationException {
         super(id, model, maxSpeed, numWheels);
         this.fuelLevel = 0.0;
         this.currentCargo = 0.0;
+        this.efficiency = getSpec().efficiencyAt(0.0);
         this.maintenanceFlag = false;
     }
 
     @Override
     public void move(double distance) throws InvalidOperationException, InsufficientFuelException {
-        if (distance < 0) throw new InvalidOperationException("Distance cannot be negative");
+        MoveResult result = tryMove(distance);
+        switch (result) {
+            case NEGATIVE_DISTANCE, INVALID_EFFICIENCY -> throw new InvalidOperationException(moveFailureMessage(result));
+            case INSUFFICIENT_FUEL -> throw new InsufficientFuelException(moveFailureMessage(result));
+            default -> { }
+        }
+    }
+
+    @Override
+    public MoveResult tryMove(double distance) {
+        if (distance < 0) return MoveResult.NEGATIVE_DISTANCE;
         double eff = calculateFuelEfficiency();
-        if (eff <= 0) throw new InvalidOperationException("Invalid fuel efficiency");
+        if (eff <= 0) return MoveResult.INVALID_EFFICIENCY;
         double fuelNeeded = distance / eff;
-        if (fuelNeeded > fuelLevel) throw new InsufficientFuelException("Insufficient fuel for the trip");
+        if (fuelNeeded > fuelLevel) return MoveResult.INSUFFICIENT_FUEL;
+        VehicleMoveEvent event = VehicleMoveEvent.start();
         fuelLevel -= fuelNeeded;
-        addMileage(distance);
-        System.out.println("Hauling cargo...");
+        addMileage(distance, fuelNeeded);
+        event.finish(this, distance, fuelNeeded);
+        notifyChange(VehicleChange.MOVED);
+        if (isLoggingEnabled()) System.out.println("Hauling cargo...");
+        return MoveResult.MOVED;
     }
 
     @Override
     public double calculateFuelEfficiency() {
-        double base = 8.0;
-        if (currentCargo > 0.5 * cargoCapacity) {
-            return base * 0.9;
-        }
-        return base;
+        return efficiency;
+    }
+
+    @Override
+    protected double loadFactor() {
+        return fraction(currentCargo, getCargoCapacity());
     }
 
     // FuelConsumable
@@ -42,6 +59,14 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
     public void refuel(double amount) throws InvalidOperationException {
         if (amount <= 0) throw new InvalidOperationException("Refuel amount > 0 required");
         fuelLevel += amount;
+        notifyChange(VehicleChange.REFUELED);
+    }
+
+    @Override
+    public void restoreFuel(double level) throws InvalidOperationException {
+        if (!(level >= 0) || Double.isInfinite(level)) throw new InvalidOperationException("Invalid fuel level " + level);
+        fuelLevel = level;
+        notifyChange(VehicleChange.RESTORED);
     }
 
     @Override
@@ -55,6 +80,8 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
         double needed = distance / eff;
         if (needed > fuelLevel) throw new InsufficientFuelException("Insufficient fuel");
         fuelLevel -= needed;
+        addFuelBurn(needed);
+        notifyChange(VehicleChange.FUEL_CONSUMED);
         return needed;
     }
 
@@ -62,9 +89,11 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
     @Override
     public void loadCargo(double weight) throws OverloadException {
         if (weight <= 0) return;
-        if (currentCargo + weight > cargoCapacity)
+        if (currentCargo + weight > getCargoCapacity())
             throw new OverloadException("Cargo overload for Truck");
         currentCargo += weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
@@ -72,11 +101,13 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
         if (weight < 0) throw new InvalidOperationException("Invalid unload weight");
         if (weight > currentCargo) throw new InvalidOperationException("Cannot unload more than current cargo");
         currentCargo -= weight;
+        efficiency = getSpec().efficiencyAt(currentCargo);
+        notifyChange(VehicleChange.CARGO_CHANGED);
     }
 
     @Override
     public double getCargoCapacity() {
-        return cargoCapacity;
+        return getSpec().getCargoCapacity(); // kg
     }
 
     @Override
@@ -88,16 +119,24 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
     @Override
     public void scheduleMaintenance() {
         maintenanceFlag = true;
+        notifyChange(VehicleChange.MAINTENANCE_SCHEDULED);
+    }
+
+    @Override
+    public boolean isMaintenanceScheduled() {
+        return maintenanceFlag;
     }
 
     @Override
     public boolean needsMaintenance() {
-        return maintenanceFlag || getCurrentMileage() > 10000.0;
+        return maintenanceFlag || getMileageSinceService() > getSpec().getServiceInterval();
     }
 
     @Override
     public void performMaintenance() {
         maintenanceFlag = false;
+        resetServiceCounters();
+        notifyChange(VehicleChange.MAINTAINED);
         System.out.println("Truck maintenance performed.");
     }
 }
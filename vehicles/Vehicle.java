@@ -1,12 +1,31 @@
 package vehicles;
 
 import exceptions.InvalidOperationException;
+import interfaces.VehicleListener;
 
 public abstract class Vehicle implements Comparable<Vehicle> {
+    private static volatile boolean loggingEnabled = true;
+    // Weights of distance, load hours and fuel in getWearScore()
+    private static final double WEAR_DISTANCE = 0.6;
+    private static final double WEAR_LOAD = 0.2;
+    private static final double WEAR_FUEL = 0.2;
+
     private String id;
     private String model;
     private double maxSpeed;
     private double currentMileage;
+    // Planar position in km and the unit vector move() travels along (heading 0 = east)
+    private double x;
+    private double y;
+    private double headingX = 1.0;
+    private double headingY = 0.0;
+    private final VehicleSpec spec;
+    // Usage since the last service: drives needsMaintenance() and getWearScore()
+    private double mileageAtService;
+    private double loadHoursSinceService;
+    private double fuelSinceService;
+    private VehicleListener listener;
+    private long version;
 
     public Vehicle(String id, String model, double maxSpeed) throws InvalidOperationException {
         if (id == null || id.trim().isEmpty()) {
@@ -16,12 +35,30 @@ public abstract class Vehicle implements Comparable<Vehicle> {
         this.model = (model == null ? "Unknown" : model);
         this.maxSpeed = maxSpeed;
         this.currentMileage = 0.0;
+        this.spec = VehicleSpecTable.lookup(getClass().getSimpleName(), this.model);
     }
 
     public abstract void move(double distance) throws InvalidOperationException, Exception;
+    // Same as move() but reports failure as a status instead of allocating an exception
+    public abstract MoveResult tryMove(double distance);
+
+    // The message move() throws for a failed tryMove() result, so tryMove callers can report a
+    // failure in the same words without the exception
+    public String moveFailureMessage(MoveResult result) {
+        return result.message();
+    }
     public abstract double calculateFuelEfficiency();
     public abstract double estimateJourneyTime(double distance);
 
+    // Console output from move() and friends; bulk drivers (telemetry, batch runs) turn it off
+    public static void setLoggingEnabled(boolean enabled) {
+        loggingEnabled = enabled;
+    }
+
+    public static boolean isLoggingEnabled() {
+        return loggingEnabled;
+    }
+
     public void displayInfo() {
         System.out.println("----- Vehicle Info -----");
         System.out.println("Type: " + this.getClass().getSimpleName());
@@ -47,8 +84,127 @@ public abstract class Vehicle implements Comparable<Vehicle> {
         return maxSpeed;
     }
 
-    protected void addMileage(double distance) {
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+        notifyChange(VehicleChange.RELOCATED);
+    }
+
+    // Degrees counter-clockwise from east
+    public double getHeading() {
+        return Math.toDegrees(Math.atan2(headingY, headingX));
+    }
+
+    public void setHeading(double degrees) {
+        double r = Math.toRadians(degrees);
+        headingX = Math.cos(r);
+        headingY = Math.sin(r);
+    }
+
+    public VehicleSpec getSpec() {
+        return spec;
+    }
+
+    // Set by the FleetManager holding the vehicle so it hears about every state change
+    public void setListener(VehicleListener listener) {
+        this.listener = listener;
+    }
+
+    public VehicleListener getListener() {
+        return listener;
+    }
+
+    // Bumped by every state change; lets caches tell whether what they computed is still current
+    public long getVersion() {
+        return version;
+    }
+
+    protected void notifyChange(VehicleChange change) {
+        version++;
+        VehicleListener l = listener;
+        if (l != null) l.vehicleChanged(this, change);
+    }
+
+    // Used by persistence to bring a reloaded vehicle back to its saved odometer reading
+    public void restoreMileage(double mileage) {
+        this.currentMileage = mileage;
+        notifyChange(VehicleChange.RESTORED);
+    }
+
+    // Restores the service counters saved alongside the odometer (see restoreMileage)
+    public void restoreService(double mileageAtService, double loadHours, double fuel) {
+        this.mileageAtService = mileageAtService;
+        this.loadHoursSinceService = loadHours;
+        this.fuelSinceService = fuel;
+        notifyChange(VehicleChange.RESTORED);
+    }
+
+    public double getMileageAtService() {
+        return mileageAtService;
+    }
+
+    public double getMileageSinceService() {
+        return currentMileage - mileageAtService;
+    }
+
+    // Journey hours weighted by how full the vehicle was (see loadFactor)
+    public double getLoadHoursSinceService() {
+        return loadHoursSinceService;
+    }
+
+    public double getFuelSinceService() {
+        return fuelSinceService;
+    }
+
+    // Wear since the last service, where 1.0 is one full service interval driven at full load.
+    // Distance, load hours and fuel are each measured against what the spec's service interval
+    // implies (its length, the hours to drive it, the fuel it takes at base efficiency).
+    public double getWearScore() {
+        double interval = spec.getServiceInterval();
+        if (interval <= 0) return 0.0;
+        double score = WEAR_DISTANCE * getMileageSinceService() / interval;
+        double hours = estimateJourneyTime(interval);
+        if (hours > 0) score += WEAR_LOAD * loadHoursSinceService / hours;
+        double base = spec.getBaseEfficiency();
+        if (base > 0) score += WEAR_FUEL * fuelSinceService * base / interval;
+        return score;
+    }
+
+    // Called from performMaintenance(): usage counting restarts at the current odometer reading
+    protected void resetServiceCounters() {
+        mileageAtService = currentMileage;
+        loadHoursSinceService = 0.0;
+        fuelSinceService = 0.0;
+    }
+
+    // How full the vehicle is, 0..1; the busier of cargo and passengers for vehicles carrying both
+    protected double loadFactor() {
+        return 0.0;
+    }
+
+    protected static double fraction(double used, double capacity) {
+        return capacity > 0 ? used / capacity : 0.0;
+    }
+
+    protected void addMileage(double distance, double fuelUsed) {
         this.currentMileage += distance;
+        this.x += distance * headingX;
+        this.y += distance * headingY;
+        this.fuelSinceService += fuelUsed;
+        this.loadHoursSinceService += estimateJourneyTime(distance) * loadFactor();
+    }
+
+    // Fuel burned through FuelConsumable.consumeFuel rather than move() counts toward wear too
+    protected void addFuelBurn(double fuelUsed) {
+        this.fuelSinceService += fuelUsed;
     }
 
     @Override
@@ -0,0 +1,15 @@
+package vehicles;
+
+public enum VehicleChange {
+    ADDED,
+    REMOVED,
+    MOVED,
+    RELOCATED,
+    REFUELED,
+    FUEL_CONSUMED,
+    CARGO_CHANGED,
+    PASSENGERS_CHANGED,
+    MAINTENANCE_SCHEDULED,
+    MAINTAINED,
+    RESTORED
+}
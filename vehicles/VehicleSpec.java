@@ -0,0 +1,70 @@
+package vehicles;
+
+public final class VehicleSpec {
+    private final int index;
+    private final String type;
+    private final String model;
+    private final int passengerCapacity;
+    private final double cargoCapacity;
+    private final double baseEfficiency;      // km/l
+    private final double loadThreshold;       // fraction of cargo capacity
+    private final double loadedEfficiencyFactor;
+    private final double serviceInterval;     // km
+
+    VehicleSpec(int index, String type, String model, int passengerCapacity, double cargoCapacity,
+                double baseEfficiency, double loadThreshold, double loadedEfficiencyFactor,
+                double serviceInterval) {
+        this.index = index;
+        this.type = type;
+        this.model = model;
+        this.passengerCapacity = passengerCapacity;
+        this.cargoCapacity = cargoCapacity;
+        this.baseEfficiency = baseEfficiency;
+        this.loadThreshold = loadThreshold;
+        this.loadedEfficiencyFactor = loadedEfficiencyFactor;
+        this.serviceInterval = serviceInterval;
+    }
+
+    public double efficiencyAt(double cargo) {
+        if (cargoCapacity > 0 && cargo > loadThreshold * cargoCapacity) {
+            return baseEfficiency * loadedEfficiencyFactor;
+        }
+        return baseEfficiency;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getPassengerCapacity() {
+        return passengerCapacity;
+    }
+
+    public double getCargoCapacity() {
+        return cargoCapacity;
+    }
+
+    public double getBaseEfficiency() {
+        return baseEfficiency;
+    }
+
+    public double getLoadThreshold() {
+        return loadThreshold;
+    }
+
+    public double getLoadedEfficiencyFactor() {
+        return loadedEfficiencyFactor;
+    }
+
+    public double getServiceInterval() {
+        return serviceInterval;
+    }
+}
@@ -0,0 +1,144 @@
+package vehicles;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class VehicleSpecTable {
+    public static final String ANY_MODEL = "*";
+    private static final double DEFAULT_SERVICE_INTERVAL = 10000.0;
+
+    private static final ConcurrentHashMap<String, VehicleSpec> specs = new ConcurrentHashMap<>();
+
+    // Column arrays indexed by VehicleSpec.getIndex(); replaced (never mutated in place) on growth
+    private static volatile VehicleSpec[] byIndex = new VehicleSpec[16];
+    private static volatile int[] passengerCapacities = new int[16];
+    private static volatile double[] cargoCapacities = new double[16];
+    private static volatile double[] baseEfficiencies = new double[16];
+    private static volatile double[] serviceIntervals = new double[16];
+    private static volatile int size = 0;
+
+    static {
+        register("Car", ANY_MODEL, 5, 0.0, 15.0, 1.0, 1.0, DEFAULT_SERVICE_INTERVAL);
+        register("Truck", ANY_MODEL, 0, 5000.0, 8.0, 0.5, 0.9, DEFAULT_SERVICE_INTERVAL);
+        register("Bus", ANY_MODEL, 50, 500.0, 10.0, 1.0, 1.0, DEFAULT_SERVICE_INTERVAL);
+        register("Airplane", ANY_MODEL, 200, 10000.0, 5.0, 1.0, 1.0, DEFAULT_SERVICE_INTERVAL);
+        register("CargoShip", ANY_MODEL, 0, 50000.0, 4.0, 1.0, 1.0, DEFAULT_SERVICE_INTERVAL);
+    }
+
+    private VehicleSpecTable() {
+    }
+
+    public static synchronized VehicleSpec register(String type, String model, int passengerCapacity,
+                                                    double cargoCapacity, double baseEfficiency,
+                                                    double loadThreshold, double loadedEfficiencyFactor,
+                                                    double serviceInterval) {
+        VehicleSpec spec = append(type, model, passengerCapacity, cargoCapacity, baseEfficiency,
+                loadThreshold, loadedEfficiencyFactor, serviceInterval);
+        specs.put(key(type, model), spec);
+        return spec;
+    }
+
+    // Model-specific spec if one is registered, otherwise the type default
+    public static VehicleSpec lookup(String type, String model) {
+        VehicleSpec spec = specs.get(key(type, model));
+        if (spec != null) return spec;
+        spec = specs.get(key(type, ANY_MODEL));
+        if (spec != null) return spec;
+        return registerUnknown(type);
+    }
+
+    // Concurrent first lookups of an unregistered type must share one index
+    private static synchronized VehicleSpec registerUnknown(String type) {
+        return specs.computeIfAbsent(key(type, ANY_MODEL), k -> {
+            System.out.println("No vehicle spec registered for type " + type
+                    + "; using zero capacity and efficiency");
+            return append(type, ANY_MODEL, 0, 0.0, 0.0, 1.0, 1.0, DEFAULT_SERVICE_INTERVAL);
+        });
+    }
+
+    // Caller holds the class lock
+    private static VehicleSpec append(String type, String model, int passengerCapacity,
+                                      double cargoCapacity, double baseEfficiency,
+                                      double loadThreshold, double loadedEfficiencyFactor,
+                                      double serviceInterval) {
+        if (size == byIndex.length) grow();
+        VehicleSpec spec = new VehicleSpec(size, type, model, passengerCapacity, cargoCapacity,
+                baseEfficiency, loadThreshold, loadedEfficiencyFactor, serviceInterval);
+        byIndex[size] = spec;
+        passengerCapacities[size] = passengerCapacity;
+        cargoCapacities[size] = cargoCapacity;
+        baseEfficiencies[size] = baseEfficiency;
+        serviceIntervals[size] = serviceInterval;
+        size++;
+        return spec;
+    }
+
+    public static VehicleSpec get(int index) {
+        return byIndex[index];
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    public static int passengerCapacity(int index) {
+        return passengerCapacities[index];
+    }
+
+    public static double cargoCapacity(int index) {
+        return cargoCapacities[index];
+    }
+
+    public static double baseEfficiency(int index) {
+        return baseEfficiencies[index];
+    }
+
+    public static double serviceInterval(int index) {
+        return serviceIntervals[index];
+    }
+
+    // CSV: type,model,passengerCapacity,cargoCapacity,baseEfficiency,loadThreshold,loadedFactor,serviceInterval
+    // Vehicles already constructed keep the spec they were created with.
+    public static void loadFromFile(String filename) {
+        int loaded = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                try {
+                    String[] p = line.split(",");
+                    register(p[0].trim(), p[1].trim(),
+                            Integer.parseInt(p[2].trim()),
+                            Double.parseDouble(p[3].trim()),
+                            Double.parseDouble(p[4].trim()),
+                            Double.parseDouble(p[5].trim()),
+                            Double.parseDouble(p[6].trim()),
+                            Double.parseDouble(p[7].trim()));
+                    loaded++;
+                } catch (RuntimeException e) {
+                    System.out.println("Failed to parse spec line: " + line + " -> " + e.getMessage());
+                }
+            }
+            System.out.println("Loaded " + loaded + " vehicle specs from " + filename);
+        } catch (IOException e) {
+            System.out.println("Error loading vehicle specs: " + e.getMessage());
+        }
+    }
+
+    private static void grow() {
+        int n = byIndex.length * 2;
+        byIndex = Arrays.copyOf(byIndex, n);
+        passengerCapacities = Arrays.copyOf(passengerCapacities, n);
+        cargoCapacities = Arrays.copyOf(cargoCapacities, n);
+        baseEfficiencies = Arrays.copyOf(baseEfficiencies, n);
+        serviceIntervals = Arrays.copyOf(serviceIntervals, n);
+    }
+
+    private static String key(String type, String model) {
+        return type + "/" + model;
+    }
+}
@@ -4,16 +4,17 @@ import exceptions.InvalidOperationException;
 
 public abstract class WaterVehicle extends Vehicle {
     private boolean hasSail;
+    private final double hoursPerKm;
 
     public WaterVehicle(String id, String model, double maxSpeed, boolean hasSail) throws InvalidOperationException {
         super(id, model, maxSpeed);
+        this.hoursPerKm = 1.15 / maxSpeed;
         this.hasSail = hasSail;
     }
 
     @Override
     public double estimateJourneyTime(double distance) {
-        double baseTime = distance / getMaxSpeed();
-        return baseTime * 1.15;
+        return distance * hoursPerKm;
     }
 
     public boolean hasSail() {